@@ -0,0 +1,174 @@
+package com.example.backend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+@EnableAsync
+@EnableScheduling
+public class AsyncConfig {
+
+    /**
+     * Shared, bounded pool for outbound model-service work. When the queue is
+     * full new tasks are rejected (and counted) instead of spawning threads, so
+     * callers can fail fast under load.
+     */
+    @Bean(name = "modelServiceExecutor")
+    public ThreadPoolTaskExecutor modelServiceExecutor(MeterRegistry registry,
+            @Value("${model.executor.core-size:8}") int coreSize,
+            @Value("${model.executor.max-size:16}") int maxSize,
+            @Value("${model.executor.queue-capacity:100}") int queueCapacity) {
+        Counter rejected = Counter.builder("model.executor.rejected")
+                .description("Tasks rejected because the model-service pool was saturated")
+                .register(registry);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("model-svc-");
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            rejected.increment();
+            throw new RejectedExecutionException("Model service executor saturated");
+        });
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+
+        Gauge.builder("model.executor.queue.depth", executor, e -> e.getThreadPoolExecutor().getQueue().size())
+                .description("Tasks waiting for a model-service worker")
+                .register(registry);
+        Gauge.builder("model.executor.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("Model-service workers currently busy")
+                .register(registry);
+        return executor;
+    }
+
+    /**
+     * CPU-bound pool for PDF text extraction, sized to the core count. When it
+     * is busy the submitting thread runs the work itself, which throttles uploads
+     * instead of queueing unbounded page ranges.
+     */
+    @Bean(name = "pdfExtractExecutor")
+    public ThreadPoolTaskExecutor pdfExtractExecutor(
+            @Value("${pdf.extract.threads:0}") int threads) {
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("pdf-extract-");
+        executor.setCorePoolSize(size);
+        executor.setMaxPoolSize(size);
+        executor.setQueueCapacity(size * 4);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    /**
+     * Workers for asynchronous PDF import jobs. Each job holds one worker for
+     * extraction plus the model-service round trip, so the pool is small and
+     * the queue bounded; uploads beyond that are refused with 503.
+     */
+    @Bean(name = "pdfJobExecutor")
+    public ThreadPoolTaskExecutor pdfJobExecutor(
+            @Value("${pdf.jobs.workers:4}") int workers,
+            @Value("${pdf.jobs.queue-capacity:50}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("pdf-job-");
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        return executor;
+    }
+
+    /**
+     * Background writes that are safe to defer past the response (e.g. caching
+     * generated game options). Falls back to the caller when saturated so no
+     * write is dropped.
+     */
+    @Bean(name = "persistenceExecutor")
+    public ThreadPoolTaskExecutor persistenceExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("persist-");
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(500);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    /**
+     * Drives streamed (SSE) game requests: each task waits on model-service
+     * chunks for one client. Bounded so a burst of streams is refused rather
+     * than piling up threads.
+     */
+    @Bean(name = "gameStreamExecutor")
+    public ThreadPoolTaskExecutor gameStreamExecutor(
+            @Value("${game.stream.workers:8}") int workers,
+            @Value("${game.stream.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("game-stream-");
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        return executor;
+    }
+
+    /**
+     * CPU-bound pool for password hashing (BCrypt), capped well below the core
+     * count so a burst of logins cannot starve the rest of the API. Saturation
+     * is rejected (and counted) and surfaces as 503 rather than queueing without
+     * bound.
+     */
+    @Bean(name = "passwordHashExecutor")
+    public ThreadPoolTaskExecutor passwordHashExecutor(MeterRegistry registry,
+            @Value("${auth.hash.threads:0}") int threads,
+            @Value("${auth.hash.queue-capacity:64}") int queueCapacity) {
+        int size = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        Counter rejected = Counter.builder("auth.hash.rejected")
+                .description("Password hashes rejected because the hashing pool was saturated")
+                .register(registry);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("pw-hash-");
+        executor.setCorePoolSize(size);
+        executor.setMaxPoolSize(size);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            rejected.increment();
+            throw new RejectedExecutionException("Password hashing executor saturated");
+        });
+
+        Gauge.builder("auth.hash.queue.depth", executor, e -> e.getThreadPoolExecutor().getQueue().size())
+                .description("Password hashes waiting for a worker")
+                .register(registry);
+        Gauge.builder("auth.hash.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("Password hashing workers currently busy")
+                .register(registry);
+        return executor;
+    }
+
+    /**
+     * Workers for background game-option pre-generation. Kept small since each
+     * batch is rate limited anyway; when all workers are busy the dispatcher
+     * runs the batch itself, so the in-memory queue absorbs the backlog.
+     */
+    @Bean(name = "pregenExecutor")
+    public ThreadPoolTaskExecutor pregenExecutor(
+            @Value("${pregen.workers:2}") int workers) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("pregen-");
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(workers);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+}
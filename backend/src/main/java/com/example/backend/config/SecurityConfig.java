@@ -3,6 +3,10 @@ package com.example.backend.config;
 import com.example.backend.repository.UserRepository;
 import com.example.backend.security.JwtAuthenticationFilter;
 import com.example.backend.security.JwtUtil;
+import com.example.backend.security.PrincipalCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -17,14 +21,18 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
-        JwtAuthenticationFilter jwtFilter = new JwtAuthenticationFilter(jwtUtil, userRepository);
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+            @Value("${management.server.port:-1}") int managementPort) throws Exception {
+        JwtAuthenticationFilter jwtFilter = new JwtAuthenticationFilter(jwtUtil, principalCache, userRepository);
+        // Actuator port is bound to loopback (management.server.address), never the public port
+        RequestMatcher onManagementPort = request -> managementPort > 0 && request.getLocalPort() == managementPort;
 
         http
                 .csrf(csrf -> csrf.disable())
@@ -34,10 +42,15 @@ public class SecurityConfig {
                                 "/api/flashcards/ai-word", "/api/flashcards/enrich")
                         .permitAll()
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                        .requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll()
+                        .requestMatchers(onManagementPort).permitAll()
+                        .requestMatchers(EndpointRequest.toAnyEndpoint()).denyAll()
                         .requestMatchers(HttpMethod.GET, "/api/sets/public", "/api/sets/public/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/sets/*").permitAll()
                         .requestMatchers(HttpMethod.POST, "/api/sets/*/cards/*/star").authenticated()
                         .requestMatchers(HttpMethod.DELETE, "/api/sets/*/cards/*/star").authenticated()
+                        // Quiz sessions are per user; the rest of the game API stays public
+                        .requestMatchers("/api/games/sessions", "/api/games/sessions/**").authenticated()
                         .requestMatchers(HttpMethod.GET, "/api/games/**").permitAll()
                         .anyRequest().authenticated())
                 .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -48,16 +61,19 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * BCrypt with a configurable cost. Existing hashes carry their own cost, so
+     * changing it only affects newly encoded passwords.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${auth.bcrypt.cost:10}") int cost) {
+        return new BCryptPasswordEncoder(cost);
     }
 
     @Bean
     public UserDetailsService userDetailsService() {
         return identifier -> {
-            return userRepository.findByUsername(identifier)
-                    .or(() -> userRepository.findByEmail(identifier))
+            return userRepository.findByUsernameOrEmail(identifier)
                     .map(u -> org.springframework.security.core.userdetails.User.withUsername(u.getUsername())
                             .password(u.getPassword()).authorities(Collections.emptyList()).build())
                     .orElseThrow(() -> new UsernameNotFoundException("User not found"));
@@ -66,9 +82,11 @@ public class SecurityConfig {
 
     private final UserRepository userRepository;
     private final JwtUtil jwtUtil;
+    private final PrincipalCache principalCache;
 
-    public SecurityConfig(UserRepository userRepository, JwtUtil jwtUtil) {
+    public SecurityConfig(UserRepository userRepository, JwtUtil jwtUtil, PrincipalCache principalCache) {
         this.userRepository = userRepository;
         this.jwtUtil = jwtUtil;
+        this.principalCache = principalCache;
     }
 }
@@ -1,27 +1,28 @@
 package com.example.backend.controller;
 
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
+import com.example.backend.exception.ModelServiceUnavailableException;
+import com.example.backend.service.WordInfoService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.client.RestTemplate;
 
-import java.util.HashMap;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/api/flashcards")
 public class AiWordController {
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    private static final Logger log = LoggerFactory.getLogger(AiWordController.class);
 
-    @Value("${model.service.base-url:http://localhost:5000}")
-    private String modelServiceBaseUrl;
+    private final WordInfoService wordInfo;
+
+    public AiWordController(WordInfoService wordInfo) {
+        this.wordInfo = wordInfo;
+    }
 
     @PostMapping("/ai-word")
     public ResponseEntity<?> generateWord(@RequestBody Map<String, Object> body) {
@@ -32,19 +33,13 @@ public class AiWordController {
                 return ResponseEntity.badRequest().body(Map.of("error", "Missing 'word'"));
             }
 
-            String url = modelServiceBaseUrl + "/word-info";
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            Map<String, String> request = new HashMap<>();
-            request.put("word", word);
-            HttpEntity<Map<String, String>> entity = new HttpEntity<>(request, headers);
-
-            @SuppressWarnings("unchecked")
-            Map<String, Object> response = restTemplate.postForObject(url, entity, Map.class);
+            Map<String, Object> response = wordInfo.lookup(word);
             return ResponseEntity.ok(response);
+        } catch (ModelServiceUnavailableException ex) {
+            return ResponseEntity.status(503).body(Map.of("error", ex.getMessage()));
         } catch (Exception ex) {
-            ex.printStackTrace();
-            return ResponseEntity.status(500).body(Map.of("error", ex.getMessage()));
+            log.error("AI word lookup failed", ex);
+            return ResponseEntity.status(500).body(Map.of("error", String.valueOf(ex.getMessage())));
         }
     }
 }
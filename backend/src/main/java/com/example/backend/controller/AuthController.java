@@ -4,13 +4,26 @@ import com.example.backend.model.User;
 import com.example.backend.model.UserProfile;
 import com.example.backend.repository.UserProfileRepository;
 import com.example.backend.repository.UserRepository;
+import com.example.backend.security.AuthenticatedUser;
+import com.example.backend.security.CurrentUser;
 import com.example.backend.security.JwtUtil;
+import com.example.backend.security.LoginRateLimiter;
+import com.example.backend.security.PasswordHasher;
+import com.example.backend.security.PrincipalCache;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -19,12 +32,21 @@ public class AuthController {
     private final UserRepository userRepo;
     private final UserProfileRepository profileRepo;
     private final JwtUtil jwtUtil;
-    private final PasswordEncoder encoder = new BCryptPasswordEncoder();
+    private final PrincipalCache principalCache;
+    private final PasswordHasher encoder;
+    private final LoginRateLimiter rateLimiter;
+    private final MeterRegistry registry;
 
-    public AuthController(UserRepository userRepo, UserProfileRepository profileRepo, JwtUtil jwtUtil) {
+    public AuthController(UserRepository userRepo, UserProfileRepository profileRepo, JwtUtil jwtUtil,
+            PrincipalCache principalCache, PasswordHasher encoder, LoginRateLimiter rateLimiter,
+            MeterRegistry registry) {
         this.userRepo = userRepo;
         this.profileRepo = profileRepo;
         this.jwtUtil = jwtUtil;
+        this.principalCache = principalCache;
+        this.encoder = encoder;
+        this.rateLimiter = rateLimiter;
+        this.registry = registry;
     }
 
     @PostMapping("/register")
@@ -34,15 +56,21 @@ public class AuthController {
         String password = body.get("password");
         if (username == null || email == null || password == null)
             return ResponseEntity.badRequest().build();
-        if (userRepo.findByUsername(username).isPresent())
-            return ResponseEntity.status(409).body("User exists");
-        if (userRepo.findByEmail(email).isPresent())
-            return ResponseEntity.status(409).body("Email exists");
         User u = new User();
         u.setUsername(username);
         u.setEmail(email);
-        u.setPassword(encoder.encode(password));
-        User saved = userRepo.save(u);
+        try {
+            u.setPassword(encoder.encode(password));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(503).body(Map.of("error", "Too many sign-ins in progress, retry later"));
+        }
+        User saved;
+        try {
+            // The unique keys on username and email decide; no check-then-insert race
+            saved = userRepo.saveAndFlush(u);
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.status(409).body(conflictMessage(e));
+        }
 
         String displayName = body.get("displayName");
         if ((displayName != null && !displayName.isBlank())) {
@@ -56,43 +84,117 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody Map<String, String> body) {
+    public ResponseEntity<?> login(@RequestBody Map<String, String> body, HttpServletRequest request) {
         String identifier = body.get("username");
         String password = body.get("password");
         if (identifier == null || password == null)
             return ResponseEntity.badRequest().build();
-        User u = userRepo.findByUsername(identifier).orElseGet(() -> userRepo.findByEmail(identifier).orElse(null));
-        if (u != null) {
-            if (encoder.matches(password, u.getPassword())) {
-                String token = jwtUtil.generateToken(u.getUsername());
-                return ResponseEntity.ok(Map.of("token", token));
+        long start = System.nanoTime();
+        String outcome = "failure";
+        try {
+            if (!rateLimiter.tryAcquire(request.getRemoteAddr(), identifier)) {
+                outcome = "throttled";
+                return ResponseEntity.status(429)
+                        .header(HttpHeaders.RETRY_AFTER, String.valueOf(rateLimiter.retryAfterSeconds()))
+                        .body(Map.of("error", "Too many login attempts, retry later"));
             }
+            User u = userRepo.findByUsernameOrEmail(identifier).orElse(null);
+            if (u != null && encoder.matches(password, u.getPassword())) {
+                rateLimiter.recordSuccess(identifier);
+                outcome = "success";
+                return ResponseEntity.ok(tokens(u.getId(), u.getUsername(), u.getTokenVersion()));
+            }
+            rateLimiter.recordFailure(identifier);
             return ResponseEntity.status(401).body("Invalid credentials");
+        } catch (RejectedExecutionException e) {
+            outcome = "unavailable";
+            return ResponseEntity.status(503).body(Map.of("error", "Too many sign-ins in progress, retry later"));
+        } finally {
+            Timer.builder("auth.login.latency").tag("outcome", outcome)
+                    .description("Login request latency by outcome")
+                    .register(registry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         }
-        return ResponseEntity.status(401).body("Invalid credentials");
     }
 
     @PostMapping("/change-password")
-    public ResponseEntity<?> changePassword(@RequestHeader("Authorization") String authHeader,
-            @RequestBody Map<String, String> body) {
+    public ResponseEntity<?> changePassword(@RequestBody Map<String, String> body) {
         String oldPass = body.get("oldPassword");
         String newPass = body.get("newPassword");
         if (oldPass == null || newPass == null)
             return ResponseEntity.badRequest().body("Missing fields");
-        String token = null;
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            token = authHeader.substring(7);
-        }
-        String username = token != null ? jwtUtil.extractUsername(token) : null;
-        if (username == null)
+        Long userId = CurrentUser.id();
+        if (userId == null)
             return ResponseEntity.status(401).body("Unauthorized");
-        return userRepo.findByUsername(username).map(u -> {
+        User u = userRepo.findById(userId).orElse(null);
+        if (u == null)
+            return ResponseEntity.status(404).body("User not found");
+        try {
             if (!this.encoder.matches(oldPass, u.getPassword())) {
                 return ResponseEntity.status(400).body("Old password incorrect");
             }
             u.setPassword(this.encoder.encode(newPass));
-            userRepo.save(u);
-            return ResponseEntity.ok(Map.of("status", "ok"));
-        }).orElse(ResponseEntity.status(404).body("User not found"));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(503).body(Map.of("error", "Too many sign-ins in progress, retry later"));
+        }
+        // Revokes every token issued before the change; the caller gets a fresh pair
+        u.setTokenVersion(u.getTokenVersion() + 1);
+        userRepo.save(u);
+        principalCache.evict(u.getId());
+        Map<String, Object> res = new HashMap<>(tokens(u.getId(), u.getUsername(), u.getTokenVersion()));
+        res.put("status", "ok");
+        return ResponseEntity.ok(res);
+    }
+
+    /** Exchanges a refresh token for a new access/refresh pair. */
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody Map<String, String> body) {
+        String refreshToken = body.get("refreshToken");
+        if (refreshToken == null)
+            return ResponseEntity.badRequest().body("Missing fields");
+        Claims claims = jwtUtil.parseClaims(refreshToken);
+        Long userId = claims == null ? null : JwtUtil.userId(claims);
+        if (userId == null || !JwtUtil.isRefresh(claims))
+            return ResponseEntity.status(401).body("Invalid refresh token");
+        int version = JwtUtil.tokenVersion(claims);
+        AuthenticatedUser user = principalCache.resolve(userId, claims.getSubject(), version);
+        if (user == null)
+            return ResponseEntity.status(401).body("Invalid refresh token");
+        return ResponseEntity.ok(tokens(user.id(), user.username(), version));
+    }
+
+    /** Signs the current user out everywhere by revoking all of their tokens. */
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout() {
+        Long userId = CurrentUser.id();
+        if (userId == null)
+            return ResponseEntity.status(401).body("Unauthorized");
+        User u = userRepo.findById(userId).orElse(null);
+        if (u == null)
+            return ResponseEntity.status(404).body("User not found");
+        u.setTokenVersion(u.getTokenVersion() + 1);
+        userRepo.save(u);
+        principalCache.evict(u.getId());
+        return ResponseEntity.ok(Map.of("status", "ok"));
+    }
+
+    /**
+     * Maps a duplicate-key violation on users to the field that clashed, from
+     * the key name in MySQL's "Duplicate entry '...' for key 'users.email'".
+     */
+    private static String conflictMessage(DataIntegrityViolationException e) {
+        String msg = String.valueOf(e.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
+        if (msg.contains(User.UK_EMAIL))
+            return "Email exists";
+        if (msg.contains(User.UK_USERNAME))
+            return "User exists";
+        return "User or email exists";
+    }
+
+    private Map<String, Object> tokens(Long userId, String username, int tokenVersion) {
+        return Map.of(
+                "token", jwtUtil.generateAccessToken(userId, username, tokenVersion),
+                "refreshToken", jwtUtil.generateRefreshToken(userId, username, tokenVersion),
+                "expiresIn", jwtUtil.getAccessValidityMs() / 1000);
     }
 }
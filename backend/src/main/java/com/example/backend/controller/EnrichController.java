@@ -1,15 +1,14 @@
 package com.example.backend.controller;
 
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
+import com.example.backend.exception.ModelServiceUnavailableException;
+import com.example.backend.service.ModelServiceClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.client.RestTemplate;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -18,10 +17,13 @@ import java.util.Map;
 @RequestMapping("/api/flashcards")
 public class EnrichController {
 
-    private final RestTemplate rest = new RestTemplate();
+    private static final Logger log = LoggerFactory.getLogger(EnrichController.class);
 
-    @Value("${model.service.base-url:http://localhost:5000}")
-    private String modelServiceBaseUrl;
+    private final ModelServiceClient modelService;
+
+    public EnrichController(ModelServiceClient modelService) {
+        this.modelService = modelService;
+    }
 
     @PostMapping("/enrich")
     public ResponseEntity<?> enrich(@RequestBody Map<String, Object> body) {
@@ -43,19 +45,16 @@ public class EnrichController {
             if (text == null)
                 return ResponseEntity.badRequest().body(Map.of("error", "Provide 'text' or 'words'"));
 
-            String url = modelServiceBaseUrl + "/flashcards";
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
             Map<String, String> req = new HashMap<>();
             req.put("text", text);
-            HttpEntity<Map<String, String>> entity = new HttpEntity<>(req, headers);
 
-            @SuppressWarnings("unchecked")
-            Map<String, Object> res = rest.postForObject(url, entity, Map.class);
+            Map<String, Object> res = modelService.postJson(ModelServiceClient.FLASHCARDS, req);
             return ResponseEntity.ok(res);
+        } catch (ModelServiceUnavailableException ex) {
+            return ResponseEntity.status(503).body(Map.of("error", ex.getMessage()));
         } catch (Exception ex) {
-            ex.printStackTrace();
-            return ResponseEntity.status(500).body(Map.of("error", ex.getMessage()));
+            log.error("Enrich failed", ex);
+            return ResponseEntity.status(500).body(Map.of("error", String.valueOf(ex.getMessage())));
         }
     }
 }
@@ -3,16 +3,21 @@ package com.example.backend.controller;
 import com.example.backend.dto.FlashcardDto;
 import com.example.backend.model.Flashcard;
 import com.example.backend.service.FlashcardService;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.net.URI;
-import java.util.List;
+import java.util.HashMap;
 import java.util.stream.Collectors;
 
 @RestController
 public class FlashcardController {
 
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final FlashcardService service;
 
     public FlashcardController(FlashcardService service) {
@@ -20,8 +25,23 @@ public class FlashcardController {
     }
 
     @GetMapping("/api/sets/{setId}/cards")
-    public List<FlashcardDto> listBySet(@PathVariable Long setId) {
-        return service.findAllBySet(setId).stream().map(this::toDto).collect(Collectors.toList());
+    public ResponseEntity<?> listBySet(@PathVariable Long setId,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(defaultValue = "50") int size) {
+        // Without a page parameter keep returning the whole set as a plain list
+        if (page == null) {
+            return ResponseEntity.ok(service.findAllBySet(setId).stream().map(this::toDto).collect(Collectors.toList()));
+        }
+        PageRequest pageable = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE),
+                Sort.by("id").ascending());
+        Page<Flashcard> cardsPage = service.findBySet(setId, pageable);
+        var body = new HashMap<String, Object>();
+        body.put("content", cardsPage.getContent().stream().map(this::toDto).toList());
+        body.put("page", cardsPage.getNumber());
+        body.put("size", cardsPage.getSize());
+        body.put("totalElements", cardsPage.getTotalElements());
+        body.put("totalPages", cardsPage.getTotalPages());
+        return ResponseEntity.ok(body);
     }
 
     @PostMapping("/api/sets/{setId}/cards")
@@ -3,8 +3,7 @@ package com.example.backend.controller;
 import com.example.backend.model.Folder;
 import com.example.backend.service.FolderService;
 import com.example.backend.repository.UserRepository;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import com.example.backend.security.CurrentUser;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -25,25 +24,21 @@ public class FolderController {
 
     @GetMapping
     public List<Folder> list() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth == null || !auth.isAuthenticated() || auth.getName() == null
-                || "anonymousUser".equals(auth.getName())) {
+        Long userId = CurrentUser.id();
+        if (userId == null) {
             return List.of();
         }
-        
-        return userRepo.findByUsername(auth.getName())
-                .map(user -> service.findByUser(user))
-                .orElse(List.of());
+        return service.findByUserId(userId);
     }
 
     @PostMapping
     public ResponseEntity<Folder> create(@RequestBody Folder f) {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth == null || !auth.isAuthenticated() || auth.getName() == null
-                || "anonymousUser".equals(auth.getName())) {
+        Long userId = CurrentUser.id();
+        if (userId == null) {
             return ResponseEntity.status(401).build();
         }
-        userRepo.findByUsername(auth.getName()).ifPresent(f::setUser);
+        // reference only: the id is all the insert needs
+        f.setUser(userRepo.getReferenceById(userId));
 
         Folder created = service.create(f);
         return ResponseEntity.created(URI.create("/api/folders/" + created.getId())).body(created);
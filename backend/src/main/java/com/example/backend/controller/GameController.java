@@ -1,29 +1,46 @@
 package com.example.backend.controller;
 
-import com.example.backend.model.Flashcard;
-import com.example.backend.repository.FlashcardRepository;
+import com.example.backend.dto.CreateQuizSessionRequest;
+import com.example.backend.dto.QuizAnswerRequest;
+import com.example.backend.exception.ResourceNotFoundException;
+import com.example.backend.security.CurrentUser;
+import com.example.backend.service.GameQuestionService;
+import com.example.backend.service.QuizSession;
+import com.example.backend.service.QuizSessionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-
-import java.net.URI;
-import java.util.*;
-import java.util.stream.Collectors;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 @RestController
 @RequestMapping("/api/games")
 public class GameController {
 
-    private final FlashcardRepository flashcardRepository;
-    private final String modelServiceBaseUrl;
     private static final Logger log = LoggerFactory.getLogger(GameController.class);
-
-    public GameController(FlashcardRepository flashcardRepository,
-            @Value("${model.service.base-url:http://localhost:5000}") String modelServiceBaseUrl) {
-        this.flashcardRepository = flashcardRepository;
-        this.modelServiceBaseUrl = modelServiceBaseUrl;
+    private static final int MAX_PAGE_SIZE = 50;
+    private static final long SSE_TIMEOUT_MS = 120_000;
+
+    private final GameQuestionService questionService;
+    private final QuizSessionService sessionService;
+    private final Executor streamExecutor;
+
+    public GameController(GameQuestionService questionService, QuizSessionService sessionService,
+            @Qualifier("gameStreamExecutor") Executor streamExecutor) {
+        this.questionService = questionService;
+        this.sessionService = sessionService;
+        this.streamExecutor = streamExecutor;
     }
 
     @GetMapping("/multiple-choice")
@@ -32,59 +49,7 @@ public class GameController {
         if (setId == null) {
             return ResponseEntity.badRequest().body(Map.of("error", "Missing setId"));
         }
-        int nDistractors = Math.max(2, optionsCount - 1);
-        List<Flashcard> cards = flashcardRepository.findBySetId(setId);
-        if (cards == null || cards.isEmpty()) {
-            return ResponseEntity.ok(Map.of("questions", List.of()));
-        }
-
-        List<Map<String, Object>> questions = new ArrayList<>();
-        List<Map<String, String>> toGenerate = new ArrayList<>();
-        Map<String, Flashcard> byTerm = new HashMap<>();
-
-        for (Flashcard c : cards) {
-            String term = Optional.ofNullable(c.getWord()).orElse("").trim();
-            String correct = Optional.ofNullable(c.getDefinition()).orElse("").trim();
-            if (term.isEmpty())
-                continue;
-            byTerm.put(term, c);
-            String cached = c.getMcqOptions();
-            if (cached != null && !cached.isBlank()) {
-                List<String> options = parseOptionsJson(cached);
-                if (options.stream().noneMatch(o -> o.equalsIgnoreCase(correct))) {
-                    options.add(correct);
-                }
-                options = shuffleWithCorrect(correct, options, nDistractors);
-                questions.add(Map.of("term", term, "correct", correct, "options", options));
-            } else {
-                toGenerate.add(Map.of("term", term, "definition", correct));
-            }
-        }
-
-        if (!toGenerate.isEmpty()) {
-            try {
-                List<Map<String, Object>> gen = callModelServiceGenerate(toGenerate, optionsCount);
-                for (Map<String, Object> q : gen) {
-                    String term = Objects.toString(q.get("term"), "");
-                    String correct = Objects.toString(q.get("correct"), "");
-                    @SuppressWarnings("unchecked")
-                    List<String> opts = (List<String>) q.getOrDefault("options", List.of());
-                    Flashcard card = byTerm.get(term);
-                    if (card != null && opts != null && !opts.isEmpty()) {
-                        card.setMcqOptions(toJsonArray(opts));
-                        flashcardRepository.save(card);
-                        if (opts.stream().noneMatch(o -> o.equalsIgnoreCase(correct))) {
-                            opts.add(correct);
-                        }
-                        opts = shuffleWithCorrect(correct, opts, nDistractors);
-                        questions.add(Map.of("term", term, "correct", correct, "options", opts));
-                    }
-                }
-            } catch (Exception ex) {
-            }
-        }
-
-        return ResponseEntity.ok(Map.of("questions", questions));
+        return ResponseEntity.ok(Map.of("questions", questionService.multipleChoice(setId, optionsCount)));
     }
 
     @GetMapping("/sentence-choice")
@@ -93,207 +58,152 @@ public class GameController {
         if (setId == null) {
             return ResponseEntity.badRequest().body(Map.of("error", "Missing setId"));
         }
-        int nOptions = Math.max(2, optionsCount);
-        List<Flashcard> cards = flashcardRepository.findBySetId(setId);
-        if (cards == null || cards.isEmpty()) {
-            return ResponseEntity.ok(Map.of("questions", List.of()));
-        }
-
-        List<Map<String, Object>> questions = new ArrayList<>();
-        List<Map<String, String>> toGenerate = new ArrayList<>();
-        Map<String, Flashcard> byWord = new HashMap<>();
-
-        for (Flashcard c : cards) {
-            String word = Optional.ofNullable(c.getWord()).orElse("").trim();
-            if (word.isEmpty())
-                continue;
-            byWord.put(word, c);
-            String cached = c.getSentenceOptions();
-            if (cached != null && !cached.isBlank()) {
-                List<String> sentences = parseOptionsJson(cached);
-                if (sentences.size() > nOptions)
-                    sentences = sentences.subList(0, nOptions);
-                int correctIdx = 0;
-                questions.add(Map.of("word", word, "sentences", sentences, "correct_index", correctIdx));
-            } else {
-                toGenerate.add(Map.of("word", word));
-            }
-        }
-
-        if (!toGenerate.isEmpty()) {
-            try {
-                List<Map<String, Object>> gen = callModelServiceGenerateSentences(toGenerate, nOptions);
-                for (Map<String, Object> q : gen) {
-                    String word = Objects.toString(q.get("word"), "");
-                    @SuppressWarnings("unchecked")
-                    List<String> sentences = (List<String>) q.getOrDefault("sentences", List.of());
-                    Integer correctIdx = (Integer) q.getOrDefault("correct_index", 0);
-                    Flashcard card = byWord.get(word);
-                    if (card != null && sentences != null && !sentences.isEmpty()) {
-                        card.setSentenceOptions(toJsonArray(sentences));
-                        flashcardRepository.save(card);
-                        if (sentences.size() > nOptions)
-                            sentences = sentences.subList(0, nOptions);
-                        questions.add(Map.of("word", word, "sentences", sentences, "correct_index", correctIdx));
-                    }
-                }
-            } catch (Exception ex) {
-            }
-        }
+        return ResponseEntity.ok(Map.of("questions", questionService.sentenceChoice(setId, optionsCount)));
+    }
 
-        return ResponseEntity.ok(Map.of("questions", questions));
+    /**
+     * SSE variant of /multiple-choice: cached questions are sent at once as a
+     * "questions" event, generated ones follow as each model-service chunk
+     * completes, and a final "done" event carries the total.
+     */
+    @GetMapping("/multiple-choice/stream")
+    public SseEmitter streamMultipleChoice(@RequestParam Long setId,
+            @RequestParam(defaultValue = "4") int optionsCount) {
+        return stream(sink -> questionService.multipleChoice(setId, optionsCount, sink));
     }
 
-    private List<String> parseOptionsJson(String json) {
-        try {
-            if (json.trim().startsWith("[")) {
-                String s = json.trim();
-                s = s.substring(1, s.length() - 1);
-                String[] parts = s.split(",");
-                List<String> list = new ArrayList<>();
-                for (String p : parts) {
-                    String v = p.trim();
-                    if (v.startsWith("\"") && v.endsWith("\"")) {
-                        v = v.substring(1, v.length() - 1);
-                    }
-                    if (!v.isBlank())
-                        list.add(v);
-                }
-                return list;
-            }
-            return Arrays.stream(json.split("\n")).map(String::trim).filter(s -> !s.isBlank())
-                    .collect(Collectors.toList());
-        } catch (Exception e) {
-            return List.of();
-        }
+    @GetMapping("/sentence-choice/stream")
+    public SseEmitter streamSentenceChoice(@RequestParam Long setId,
+            @RequestParam(defaultValue = "4") int optionsCount) {
+        return stream(sink -> questionService.sentenceChoice(setId, optionsCount, sink));
     }
 
-    private String toJsonArray(List<String> opts) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("[");
-        for (int i = 0; i < opts.size(); i++) {
-            if (i > 0)
-                sb.append(",");
-            sb.append('"').append(escape(opts.get(i))).append('"');
+    /**
+     * Starts a quiz session: the deck is built once and kept server-side, and
+     * questions are served without the answer key.
+     */
+    @PostMapping("/sessions")
+    public ResponseEntity<?> createSession(@RequestBody CreateQuizSessionRequest req) {
+        Long userId = CurrentUser.id();
+        if (userId == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "Unauthorized"));
+        }
+        if (req.getSetId() == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Missing setId"));
+        }
+        String type = req.getType() == null ? QuizSessionService.MULTIPLE_CHOICE : req.getType();
+        int optionsCount = req.getOptionsCount() == null ? 4 : req.getOptionsCount();
+        try {
+            QuizSession session = sessionService.create(userId, req.getSetId(), type, optionsCount);
+            return ResponseEntity.status(201).body(session.toView());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(503).body(Map.of("error", e.getMessage()));
         }
-        sb.append("]");
-        return sb.toString();
     }
 
-    private String escape(String s) {
-        return s.replace("\\", "\\\\").replace("\"", "\\\"");
+    @GetMapping("/sessions/{id}")
+    public Map<String, Object> getSession(@PathVariable String id) {
+        return requireSession(id).toView();
     }
 
-    private List<String> shuffle(List<String> list) {
-        List<String> copy = new ArrayList<>(list);
-        Collections.shuffle(copy);
-        return copy;
+    @GetMapping("/sessions/{id}/questions")
+    public Map<String, Object> getSessionQuestions(@PathVariable String id,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "10") int limit) {
+        QuizSession session = requireSession(id);
+        int size = Math.min(Math.max(1, limit), MAX_PAGE_SIZE);
+        Map<String, Object> out = new HashMap<>();
+        out.put("questions", session.questions(offset, size));
+        out.put("offset", Math.max(0, offset));
+        out.put("total", session.size());
+        return out;
     }
 
-    private List<String> shuffleWithCorrect(String correct, List<String> options, int nDistractors) {
-        List<String> pool = new ArrayList<>();
-        pool.add(correct);
-        for (String o : options) {
-            if (pool.size() >= nDistractors + 1)
-                break;
-            if (o.equalsIgnoreCase(correct))
-                continue;
-            pool.add(o);
+    @PostMapping("/sessions/{id}/answers")
+    public ResponseEntity<?> answer(@PathVariable String id, @RequestBody QuizAnswerRequest req) {
+        QuizSession session = requireSession(id);
+        if (req.getIndex() == null || req.getChoice() == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Missing index or choice"));
         }
-        Collections.shuffle(pool);
-        return pool;
-    }
-
-    @SuppressWarnings("unchecked")
-    private List<Map<String, Object>> callModelServiceGenerate(List<Map<String, String>> pairs, int optionsCount) {
-        String base = modelServiceBaseUrl;
         try {
-            var url = new java.net.URL(base + "/generate-distractors");
-            var conn = (java.net.HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("POST");
-            conn.setRequestProperty("Content-Type", "application/json");
-            conn.setDoOutput(true);
-            String payload = toJsonPayload(pairs, optionsCount);
-            try (var os = conn.getOutputStream()) {
-                os.write(payload.getBytes(java.nio.charset.StandardCharsets.UTF_8));
-            }
-            int status = conn.getResponseCode();
-            if (status >= 200 && status < 300) {
-                String resp = new String(conn.getInputStream().readAllBytes(), java.nio.charset.StandardCharsets.UTF_8);
-                var mapper = new com.fasterxml.jackson.databind.ObjectMapper();
-                Map<String, Object> root = mapper.readValue(resp, Map.class);
-                Object qs = root.get("questions");
-                if (qs instanceof List<?>) {
-                    return (List<Map<String, Object>>) qs;
-                }
-            }
-        } catch (Exception e) {
-            log.warn("Failed to call model service for multiple-choice: {}", e.toString());
+            QuizSession.Grade grade = session.answer(req.getIndex(), req.getChoice());
+            return ResponseEntity.ok(Map.of(
+                    "correct", grade.correct(),
+                    "correctIndex", grade.correctIndex(),
+                    "score", grade.score(),
+                    "answered", grade.answered(),
+                    "total", session.size()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("error", e.getMessage()));
         }
-        return List.of();
     }
 
-    private String toJsonPayload(List<Map<String, String>> pairs, int optionsCount) {
-        StringBuilder sb = new StringBuilder();
-        sb.append('{');
-        sb.append("\"options_count\":").append(optionsCount).append(',');
-        sb.append("\"pairs\":[");
-        for (int i = 0; i < pairs.size(); i++) {
-            if (i > 0)
-                sb.append(',');
-            Map<String, String> p = pairs.get(i);
-            sb.append('{');
-            sb.append("\"term\":\"").append(escape(p.getOrDefault("term", ""))).append("\",");
-            sb.append("\"definition\":\"").append(escape(p.getOrDefault("definition", ""))).append("\"");
-            sb.append('}');
-        }
-        sb.append("]}");
-        return sb.toString();
-    }
-
-    @SuppressWarnings("unchecked")
-    private List<Map<String, Object>> callModelServiceGenerateSentences(List<Map<String, String>> words,
-            int optionsCount) {
-        String base = modelServiceBaseUrl;
-        try {
-            var url = new java.net.URL(base + "/generate-sentences");
-            var conn = (java.net.HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("POST");
-            conn.setRequestProperty("Content-Type", "application/json");
-            conn.setDoOutput(true);
-            String payload = toJsonSentencesPayload(words, optionsCount);
-            try (var os = conn.getOutputStream()) {
-                os.write(payload.getBytes(java.nio.charset.StandardCharsets.UTF_8));
+    private SseEmitter stream(Consumer<Consumer<List<Map<String, Object>>>> producer) {
+        SseEmitter emitter = new SseEmitter(SSE_TIMEOUT_MS);
+        AtomicBoolean closed = new AtomicBoolean();
+        // Worker thread while the producer runs; guarded by itself so an interrupt
+        // can never reach the thread after it has moved on to another stream
+        Thread[] worker = { null };
+        Runnable close = () -> {
+            closed.set(true);
+            synchronized (worker) {
+                if (worker[0] != null)
+                    worker[0].interrupt();
             }
-            int status = conn.getResponseCode();
-            if (status >= 200 && status < 300) {
-                String resp = new String(conn.getInputStream().readAllBytes(), java.nio.charset.StandardCharsets.UTF_8);
-                var mapper = new com.fasterxml.jackson.databind.ObjectMapper();
-                Map<String, Object> root = mapper.readValue(resp, Map.class);
-                Object qs = root.get("questions");
-                if (qs instanceof List<?>) {
-                    return (List<Map<String, Object>>) qs;
-                }
+        };
+        // Timed out or gone: stop waiting on generation and free the stream slot
+        emitter.onTimeout(close);
+        emitter.onError(e -> close.run());
+        emitter.onCompletion(close);
+        BiConsumer<String, Object> send = (name, data) -> {
+            if (closed.get())
+                throw new IllegalStateException("Client disconnected");
+            try {
+                emitter.send(SseEmitter.event().name(name).data(data));
+            } catch (IOException e) {
+                throw new IllegalStateException("Client disconnected", e);
             }
-        } catch (Exception e) {
-            log.warn("Failed to call model service for sentence-choice: {}", e.toString());
+        };
+        try {
+            streamExecutor.execute(() -> {
+                synchronized (worker) {
+                    worker[0] = Thread.currentThread();
+                }
+                int[] total = { 0 };
+                try {
+                    producer.accept(batch -> {
+                        send.accept("questions", Map.of("questions", batch));
+                        total[0] += batch.size();
+                    });
+                    send.accept("done", Map.of("total", total[0]));
+                    emitter.complete();
+                } catch (Exception e) {
+                    log.debug("Game stream ended early: {}", e.toString());
+                    emitter.completeWithError(e);
+                } finally {
+                    synchronized (worker) {
+                        worker[0] = null;
+                        Thread.interrupted();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            send.accept("error", Map.of("error", "Too many game streams in progress, retry later"));
+            emitter.complete();
         }
-        return List.of();
+        return emitter;
     }
 
-    private String toJsonSentencesPayload(List<Map<String, String>> words, int optionsCount) {
-        StringBuilder sb = new StringBuilder();
-        sb.append('{');
-        sb.append("\"options_count\":").append(optionsCount).append(',');
-        sb.append("\"words\":[");
-        for (int i = 0; i < words.size(); i++) {
-            if (i > 0)
-                sb.append(',');
-            Map<String, String> p = words.get(i);
-            sb.append('"').append(escape(p.getOrDefault("word", ""))).append('"');
-        }
-        sb.append(']');
-        sb.append('}');
-        return sb.toString();
+    private QuizSession requireSession(String id) {
+        Long userId = CurrentUser.id();
+        // Other users' sessions are reported as missing, not forbidden
+        QuizSession session = userId == null ? null : sessionService.find(id, userId);
+        if (session == null)
+            throw new ResourceNotFoundException("Quiz session not found: " + id);
+        return session;
     }
 }
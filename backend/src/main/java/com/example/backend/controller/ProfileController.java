@@ -3,7 +3,7 @@ package com.example.backend.controller;
 import com.example.backend.model.UserProfile;
 import com.example.backend.repository.UserProfileRepository;
 import com.example.backend.repository.UserRepository;
-import com.example.backend.security.JwtUtil;
+import com.example.backend.security.CurrentUser;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -14,21 +14,18 @@ import java.util.Map;
 public class ProfileController {
     private final UserRepository userRepo;
     private final UserProfileRepository profileRepo;
-    private final JwtUtil jwtUtil;
 
-    public ProfileController(UserRepository userRepo, UserProfileRepository profileRepo, JwtUtil jwtUtil) {
+    public ProfileController(UserRepository userRepo, UserProfileRepository profileRepo) {
         this.userRepo = userRepo;
         this.profileRepo = profileRepo;
-        this.jwtUtil = jwtUtil;
     }
 
     @GetMapping
-    public ResponseEntity<?> get(@RequestHeader(value = "Authorization", required = false) String authHeader) {
-        String token = (authHeader != null && authHeader.startsWith("Bearer ")) ? authHeader.substring(7) : null;
-        String username = token != null ? jwtUtil.extractUsername(token) : null;
-        if (username == null)
+    public ResponseEntity<?> get() {
+        Long userId = CurrentUser.id();
+        if (userId == null)
             return ResponseEntity.status(401).body("Unauthorized");
-        return userRepo.findByUsername(username).map(u -> {
+        return userRepo.findById(userId).map(u -> {
             UserProfile p = profileRepo.findByUserId(u.getId());
             if (p == null) {
                 p = new UserProfile();
@@ -51,13 +48,11 @@ public class ProfileController {
     }
 
     @PutMapping
-    public ResponseEntity<?> update(@RequestHeader(value = "Authorization", required = false) String authHeader,
-            @RequestBody Map<String, String> body) {
-        String token = (authHeader != null && authHeader.startsWith("Bearer ")) ? authHeader.substring(7) : null;
-        String username = token != null ? jwtUtil.extractUsername(token) : null;
-        if (username == null)
+    public ResponseEntity<?> update(@RequestBody Map<String, String> body) {
+        Long userId = CurrentUser.id();
+        if (userId == null)
             return ResponseEntity.status(401).body("Unauthorized");
-        return userRepo.findByUsername(username).map(u -> {
+        return userRepo.findById(userId).map(u -> {
             UserProfile p = profileRepo.findByUserId(u.getId());
             if (p == null) {
                 p = new UserProfile();
@@ -0,0 +1,98 @@
+package com.example.backend.controller;
+
+import com.example.backend.dto.ReviewGradeRequest;
+import com.example.backend.model.CardReview;
+import com.example.backend.model.Flashcard;
+import com.example.backend.repository.FlashcardRepository;
+import com.example.backend.security.CurrentUser;
+import com.example.backend.service.ReviewService;
+import com.example.backend.service.SetDtoAssembler;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/reviews")
+public class ReviewController {
+
+    private static final int MAX_LIMIT = 200;
+
+    private final ReviewService reviewService;
+    private final FlashcardRepository cardRepo;
+    private final SetDtoAssembler assembler;
+
+    public ReviewController(ReviewService reviewService, FlashcardRepository cardRepo, SetDtoAssembler assembler) {
+        this.reviewService = reviewService;
+        this.cardRepo = cardRepo;
+        this.assembler = assembler;
+    }
+
+    /** The next {@code limit} cards due for review, with their card content. */
+    @GetMapping("/due")
+    public ResponseEntity<?> due(@RequestParam(defaultValue = "20") int limit) {
+        Long userId = CurrentUser.id();
+        if (userId == null)
+            return ResponseEntity.status(401).body(Map.of("error", "Unauthorized"));
+        int size = Math.min(Math.max(1, limit), MAX_LIMIT);
+
+        List<CardReview> due = reviewService.findDue(userId, size);
+        Map<Long, Flashcard> cards = cardRepo.findAllById(due.stream().map(CardReview::getCardId).toList())
+                .stream().collect(Collectors.toMap(Flashcard::getId, Function.identity()));
+        List<Map<String, Object>> items = new ArrayList<>(due.size());
+        List<Long> orphans = new ArrayList<>();
+        for (CardReview r : due) {
+            Flashcard card = cards.get(r.getCardId());
+            if (card == null) {
+                orphans.add(r.getId());
+                continue;
+            }
+            Map<String, Object> item = toView(r);
+            item.put("card", assembler.cardToDto(card));
+            items.add(item);
+        }
+        reviewService.discard(orphans);
+        return ResponseEntity.ok(Map.of("items", items, "count", items.size()));
+    }
+
+    @PostMapping("/cards/{cardId}")
+    public ResponseEntity<?> grade(@PathVariable Long cardId, @RequestBody ReviewGradeRequest req) {
+        Long userId = CurrentUser.id();
+        if (userId == null)
+            return ResponseEntity.status(401).body(Map.of("error", "Unauthorized"));
+        if (req.getGrade() == null)
+            return ResponseEntity.badRequest().body(Map.of("error", "Missing grade"));
+        try {
+            return ResponseEntity.ok(toView(reviewService.grade(userId, cardId, req.getGrade())));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /** Starts reviewing every card of a set; cards already scheduled keep their state. */
+    @PostMapping("/sets/{setId}")
+    public ResponseEntity<?> enrollSet(@PathVariable Long setId) {
+        Long userId = CurrentUser.id();
+        if (userId == null)
+            return ResponseEntity.status(401).body(Map.of("error", "Unauthorized"));
+        return ResponseEntity.ok(Map.of("setId", setId, "added", reviewService.enrollSet(userId, setId)));
+    }
+
+    private Map<String, Object> toView(CardReview r) {
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("cardId", r.getCardId());
+        view.put("setId", r.getSetId());
+        view.put("due", r.getDue());
+        view.put("interval", r.getIntervalDays());
+        view.put("ease", r.getEase());
+        view.put("repetitions", r.getRepetitions());
+        view.put("lapses", r.getLapses());
+        view.put("lastReviewedAt", r.getLastReviewedAt());
+        return view;
+    }
+}
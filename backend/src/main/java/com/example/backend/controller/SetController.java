@@ -1,73 +1,64 @@
 package com.example.backend.controller;
 
 import com.example.backend.dto.CreateSetRequest;
-import com.example.backend.dto.FlashcardDto;
 import com.example.backend.dto.SetDto;
+import com.example.backend.dto.SetSummaryDto;
 import com.example.backend.exception.ResourceNotFoundException;
-import com.example.backend.model.Flashcard;
 import com.example.backend.model.FlashcardSet;
 import com.example.backend.model.Folder;
-import com.example.backend.model.User;
-import com.example.backend.repository.FlashcardRepository;
-import com.example.backend.repository.UserRepository;
-import com.example.backend.repository.UserProfileRepository;
+import com.example.backend.security.CurrentUser;
 import com.example.backend.service.FlashcardSetService;
 import com.example.backend.service.FolderService;
+import com.example.backend.service.SetCursor;
+import com.example.backend.service.SetDtoAssembler;
 import org.springframework.http.ResponseEntity;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.net.URI;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/sets")
 public class SetController {
 
+    // Public feed sort keys -> entity properties. Each is backed by an index with
+    // access as the leading column, so ordering never falls back to a filesort.
+    private static final Map<String, String> PUBLIC_SORTS = Map.of(
+            "createdAt", "createdAt",
+            "id", "id");
+
     private final FlashcardSetService service;
-    private final FlashcardRepository flashcardRepository;
-    private final UserRepository userRepository;
     private final FolderService folderService;
-    private final UserProfileRepository userProfileRepository;
+    private final SetDtoAssembler assembler;
 
-    public SetController(FlashcardSetService service, FlashcardRepository flashcardRepository,
-            UserRepository userRepository, FolderService folderService, UserProfileRepository userProfileRepository) {
+    public SetController(FlashcardSetService service, FolderService folderService, SetDtoAssembler assembler) {
         this.service = service;
-        this.flashcardRepository = flashcardRepository;
-        this.userRepository = userRepository;
         this.folderService = folderService;
-        this.userProfileRepository = userProfileRepository;
+        this.assembler = assembler;
     }
 
     @GetMapping
-    public List<SetDto> list(@RequestParam(required = false) Long folderId) {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String username = auth.getName();
-        User currentUser = userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + username));
+    public List<SetSummaryDto> list(@RequestParam(required = false) Long folderId) {
+        Long userId = CurrentUser.id();
+        if (userId == null)
+            throw new ResourceNotFoundException("User not found");
 
         List<FlashcardSet> sets;
         if (folderId != null) {
             Folder folder = folderService.findById(folderId);
-            if (folder == null || !folder.getUser().getId().equals(currentUser.getId())) {
+            if (folder == null || !folder.getUser().getId().equals(userId)) {
                 throw new ResourceNotFoundException("Folder not found or access denied: " + folderId);
             }
             sets = service.findByFolderId(folderId);
         } else {
-            List<Folder> userFolders = folderService.findByUser(currentUser);
-            List<Long> folderIds = userFolders.stream().map(Folder::getId).collect(Collectors.toList());
-
-            sets = service.findAll().stream()
-                    .filter(set -> set.getFolder() != null && folderIds.contains(set.getFolder().getId()))
-                    .collect(Collectors.toList());
+            sets = service.findByOwnerId(userId);
         }
-        return sets.stream().map(this::toDto).toList();
+        return assembler.toSummaries(sets);
     }
 
     @GetMapping("/public")
@@ -75,16 +66,23 @@ public class SetController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "9") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
-            @RequestParam(defaultValue = "desc") String order) {
-        Sort sort = Sort.unsorted();
-        if ("desc".equalsIgnoreCase(order)) {
-            sort = Sort.by(sortBy != null && !sortBy.isBlank() ? sortBy : "id").descending();
-        } else {
-            sort = Sort.by(sortBy != null && !sortBy.isBlank() ? sortBy : "id").ascending();
+            @RequestParam(defaultValue = "desc") String order,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean withTotal) {
+        String sortProperty = PUBLIC_SORTS.get(sortBy == null || sortBy.isBlank() ? "createdAt" : sortBy);
+        if (sortProperty == null) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Unsupported sortBy, expected one of " + PUBLIC_SORTS.keySet()));
+        }
+        // Keyset mode: any cursor param (empty for the first page) switches off OFFSET + COUNT
+        if (cursor != null) {
+            return listPublicKeyset(cursor, size, sortProperty, order, withTotal);
         }
+        Sort.Direction direction = "asc".equalsIgnoreCase(order) ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Sort sort = "id".equals(sortProperty) ? Sort.by(direction, "id") : Sort.by(direction, sortProperty, "id");
         Pageable pageable = PageRequest.of(Math.max(page, 0), Math.max(size, 1), sort);
         Page<FlashcardSet> setsPage = service.findPublic(pageable);
-        var content = setsPage.getContent().stream().map(this::toDto).toList();
+        var content = assembler.toSummaries(setsPage.getContent());
         var body = new java.util.HashMap<String, Object>();
         body.put("content", content);
         body.put("page", setsPage.getNumber());
@@ -94,6 +92,41 @@ public class SetController {
         return ResponseEntity.ok(body);
     }
 
+    private ResponseEntity<?> listPublicKeyset(String cursor, int size, String sortProperty, String order,
+            boolean withTotal) {
+        SetCursor after = null;
+        if (!cursor.isBlank()) {
+            try {
+                after = SetCursor.decode(cursor);
+            } catch (IllegalArgumentException ex) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Invalid cursor"));
+            }
+            if (!after.getSortBy().equals(sortProperty)) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Cursor does not match sortBy"));
+            }
+        }
+        int limit = Math.min(Math.max(size, 1), 100);
+        boolean descending = !"asc".equalsIgnoreCase(order);
+        // Fetch one extra row to know whether another page exists
+        List<FlashcardSet> rows = service.findPublicAfter(after, sortProperty, descending, limit + 1);
+        boolean hasNext = rows.size() > limit;
+        if (hasNext)
+            rows = rows.subList(0, limit);
+
+        var body = new java.util.HashMap<String, Object>();
+        body.put("content", assembler.toSummaries(rows));
+        body.put("size", limit);
+        if (hasNext) {
+            FlashcardSet last = rows.get(rows.size() - 1);
+            body.put("nextCursor", SetCursor.after(last, sortProperty).encode());
+        } else {
+            body.put("nextCursor", null);
+        }
+        if (withTotal)
+            body.put("totalElements", service.countPublicCached());
+        return ResponseEntity.ok(body);
+    }
+
     @PostMapping
     public ResponseEntity<SetDto> create(@RequestBody CreateSetRequest req) {
         FlashcardSet set = new FlashcardSet();
@@ -108,7 +141,7 @@ public class SetController {
             set.setFolder(folder);
         }
         FlashcardSet created = service.create(set);
-        return ResponseEntity.created(URI.create("/api/sets/" + created.getId())).body(toDto(created));
+        return ResponseEntity.created(URI.create("/api/sets/" + created.getId())).body(assembler.toDto(created));
     }
 
     @GetMapping("/{id}")
@@ -116,7 +149,7 @@ public class SetController {
         FlashcardSet set = service.findById(id);
         if (set == null)
             throw new ResourceNotFoundException("Set not found: " + id);
-        return toDto(set);
+        return assembler.toDto(set);
     }
 
     @PutMapping("/{id}")
@@ -135,7 +168,7 @@ public class SetController {
         FlashcardSet res = service.update(id, updated);
         if (res == null)
             throw new ResourceNotFoundException("Set not found: " + id);
-        return toDto(res);
+        return assembler.toDto(res);
     }
 
     @DeleteMapping("/{id}")
@@ -143,48 +176,4 @@ public class SetController {
         service.delete(id);
         return ResponseEntity.noContent().build();
     }
-
-    private SetDto toDto(FlashcardSet s) {
-        SetDto d = new SetDto();
-        d.setId(s.getId());
-        d.setTitle(s.getTitle());
-        d.setDescription(s.getDescription());
-        d.setAccess(s.getAccess());
-        if (s.getFolder() != null)
-            d.setFolderId(s.getFolder().getId());
-
-        if (s.getFolder() != null && s.getFolder().getUser() != null) {
-            var owner = s.getFolder().getUser();
-            d.setOwnerUsername(owner.getUsername());
-            var profile = userProfileRepository.findByUserId(owner.getId());
-            if (profile != null) {
-                d.setOwnerDisplayName(profile.getDisplayName());
-                d.setOwnerAvatarUrl(profile.getAvatarUrl());
-            }
-        }
-
-        long cardCount = flashcardRepository.countBySetId(s.getId());
-        d.setCardCount((int) cardCount);
-
-        List<Flashcard> cards = flashcardRepository.findBySetId(s.getId());
-        if (cards != null && !cards.isEmpty()) {
-            d.setCards(cards.stream().map(this::cardToDto).toList());
-        }
-
-        return d;
-    }
-
-    private FlashcardDto cardToDto(Flashcard f) {
-        FlashcardDto d = new FlashcardDto();
-        d.setId(f.getId());
-        d.setWord(f.getWord());
-        d.setDefinition(f.getDefinition());
-        d.setPhonetic(f.getPhonetic());
-        d.setExample(f.getExample());
-        d.setType(f.getType());
-        d.setAudio(f.getAudio());
-        if (f.getSet() != null)
-            d.setSetId(f.getSet().getId());
-        return d;
-    }
 }
@@ -0,0 +1,34 @@
+package com.example.backend.dto;
+
+public class CreateQuizSessionRequest {
+    private Long setId;
+    private String type;
+    private Integer optionsCount;
+
+    public CreateQuizSessionRequest() {
+    }
+
+    public Long getSetId() {
+        return setId;
+    }
+
+    public void setSetId(Long setId) {
+        this.setId = setId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Integer getOptionsCount() {
+        return optionsCount;
+    }
+
+    public void setOptionsCount(Integer optionsCount) {
+        this.optionsCount = optionsCount;
+    }
+}
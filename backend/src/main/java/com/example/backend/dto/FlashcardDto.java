@@ -1,5 +1,7 @@
 package com.example.backend.dto;
 
+import java.util.List;
+
 public class FlashcardDto {
     private Long id;
     private String word;
@@ -9,8 +11,8 @@ public class FlashcardDto {
     private String type;
     private String audio;
     private Long setId;
-    private String mcqOptions;
-    private String sentenceOptions;
+    private List<String> mcqOptions;
+    private List<String> sentenceOptions;
 
     public FlashcardDto() {
     }
@@ -79,19 +81,19 @@ public class FlashcardDto {
         this.setId = setId;
     }
 
-    public String getMcqOptions() {
+    public List<String> getMcqOptions() {
         return mcqOptions;
     }
 
-    public void setMcqOptions(String mcqOptions) {
+    public void setMcqOptions(List<String> mcqOptions) {
         this.mcqOptions = mcqOptions;
     }
 
-    public String getSentenceOptions() {
+    public List<String> getSentenceOptions() {
         return sentenceOptions;
     }
 
-    public void setSentenceOptions(String sentenceOptions) {
+    public void setSentenceOptions(List<String> sentenceOptions) {
         this.sentenceOptions = sentenceOptions;
     }
 }
@@ -0,0 +1,25 @@
+package com.example.backend.dto;
+
+public class QuizAnswerRequest {
+    private Integer index;
+    private Integer choice;
+
+    public QuizAnswerRequest() {
+    }
+
+    public Integer getIndex() {
+        return index;
+    }
+
+    public void setIndex(Integer index) {
+        this.index = index;
+    }
+
+    public Integer getChoice() {
+        return choice;
+    }
+
+    public void setChoice(Integer choice) {
+        this.choice = choice;
+    }
+}
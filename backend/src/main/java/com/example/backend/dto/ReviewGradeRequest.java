@@ -0,0 +1,16 @@
+package com.example.backend.dto;
+
+public class ReviewGradeRequest {
+    private Integer grade;
+
+    public ReviewGradeRequest() {
+    }
+
+    public Integer getGrade() {
+        return grade;
+    }
+
+    public void setGrade(Integer grade) {
+        this.grade = grade;
+    }
+}
@@ -3,55 +3,12 @@ package com.example.backend.dto;
 import java.util.ArrayList;
 import java.util.List;
 
-public class SetDto {
-    private Long id;
-    private String title;
-    private String description;
-    private String access;
+public class SetDto extends SetSummaryDto {
     private List<FlashcardDto> cards = new ArrayList<>();
-    private Long folderId;
-    private int cardCount;
-
-    // Owner info for community display
-    private String ownerDisplayName;
-    private String ownerUsername;
-    private String ownerAvatarUrl;
 
     public SetDto() {
     }
 
-    public Long getId() {
-        return id;
-    }
-
-    public void setId(Long id) {
-        this.id = id;
-    }
-
-    public String getTitle() {
-        return title;
-    }
-
-    public void setTitle(String title) {
-        this.title = title;
-    }
-
-    public String getDescription() {
-        return description;
-    }
-
-    public void setDescription(String description) {
-        this.description = description;
-    }
-
-    public String getAccess() {
-        return access;
-    }
-
-    public void setAccess(String access) {
-        this.access = access;
-    }
-
     public List<FlashcardDto> getCards() {
         return cards;
     }
@@ -59,44 +16,4 @@ public class SetDto {
     public void setCards(List<FlashcardDto> cards) {
         this.cards = cards;
     }
-
-    public Long getFolderId() {
-        return folderId;
-    }
-
-    public void setFolderId(Long folderId) {
-        this.folderId = folderId;
-    }
-
-    public int getCardCount() {
-        return cardCount;
-    }
-
-    public void setCardCount(int cardCount) {
-        this.cardCount = cardCount;
-    }
-
-    public String getOwnerDisplayName() {
-        return ownerDisplayName;
-    }
-
-    public void setOwnerDisplayName(String ownerDisplayName) {
-        this.ownerDisplayName = ownerDisplayName;
-    }
-
-    public String getOwnerUsername() {
-        return ownerUsername;
-    }
-
-    public void setOwnerUsername(String ownerUsername) {
-        this.ownerUsername = ownerUsername;
-    }
-
-    public String getOwnerAvatarUrl() {
-        return ownerAvatarUrl;
-    }
-
-    public void setOwnerAvatarUrl(String ownerAvatarUrl) {
-        this.ownerAvatarUrl = ownerAvatarUrl;
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,11 @@
+package com.example.backend.exception;
+
+/**
+ * Thrown without calling the model service when its circuit breaker is open
+ * or the endpoint's bulkhead is full. Callers should degrade immediately.
+ */
+public class ModelServiceUnavailableException extends RuntimeException {
+    public ModelServiceUnavailableException(String message) {
+        super(message);
+    }
+}
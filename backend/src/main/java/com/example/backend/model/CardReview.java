@@ -0,0 +1,125 @@
+package com.example.backend.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Per-user spaced-repetition state of one card (SM-2). The due queue is read
+ * through idx_reviews_user_due, so "next N due cards" is one index range scan.
+ */
+@Entity
+@Table(name = "card_reviews", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_reviews_user_card", columnNames = { "user_id", "card_id" })
+}, indexes = {
+        @Index(name = "idx_reviews_user_due", columnList = "user_id, due")
+})
+public class CardReview {
+
+    public static final double INITIAL_EASE = 2.5;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "card_id", nullable = false)
+    private Long cardId;
+
+    @Column(name = "set_id", nullable = false)
+    private Long setId;
+
+    @Column(nullable = false, columnDefinition = "datetime(6)")
+    private Instant due;
+
+    // "interval" is reserved in MySQL
+    @Column(name = "interval_days", nullable = false)
+    private int intervalDays;
+
+    @Column(nullable = false)
+    private double ease = INITIAL_EASE;
+
+    @Column(nullable = false)
+    private int repetitions;
+
+    @Column(nullable = false)
+    private int lapses;
+
+    @Column(name = "last_reviewed_at", columnDefinition = "datetime(6)")
+    private Instant lastReviewedAt;
+
+    public CardReview() {
+    }
+
+    public CardReview(Long userId, Long cardId, Long setId, Instant due) {
+        this.userId = userId;
+        this.cardId = cardId;
+        this.setId = setId;
+        this.due = due;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getCardId() {
+        return cardId;
+    }
+
+    public Long getSetId() {
+        return setId;
+    }
+
+    public Instant getDue() {
+        return due;
+    }
+
+    public void setDue(Instant due) {
+        this.due = due;
+    }
+
+    public int getIntervalDays() {
+        return intervalDays;
+    }
+
+    public void setIntervalDays(int intervalDays) {
+        this.intervalDays = intervalDays;
+    }
+
+    public double getEase() {
+        return ease;
+    }
+
+    public void setEase(double ease) {
+        this.ease = ease;
+    }
+
+    public int getRepetitions() {
+        return repetitions;
+    }
+
+    public void setRepetitions(int repetitions) {
+        this.repetitions = repetitions;
+    }
+
+    public int getLapses() {
+        return lapses;
+    }
+
+    public void setLapses(int lapses) {
+        this.lapses = lapses;
+    }
+
+    public Instant getLastReviewedAt() {
+        return lastReviewedAt;
+    }
+
+    public void setLastReviewedAt(Instant lastReviewedAt) {
+        this.lastReviewedAt = lastReviewedAt;
+    }
+}
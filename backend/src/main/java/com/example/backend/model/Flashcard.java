@@ -3,6 +3,8 @@ package com.example.backend.model;
 import jakarta.persistence.*;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 
+import java.util.List;
+
 @Entity
 @Table(name = "flashcards")
 public class Flashcard {
@@ -29,9 +31,14 @@ public class Flashcard {
     @Column(length = 500)
     private String audio;
 
-    @Column(columnDefinition = "TEXT")
-    private String mcqOptions; // JSON array of options for multiple choice caching
-    private String sentenceOptions; // JSON array of sentences for sentence choice caching
+    // JSON array; the converter also reads the legacy text encodings
+    @Convert(converter = OptionListConverter.class)
+    @Column(columnDefinition = "json")
+    private List<String> mcqOptions; // cached multiple choice distractors
+
+    @Convert(converter = OptionListConverter.class)
+    @Column(columnDefinition = "json")
+    private List<String> sentenceOptions; // cached sentence choice sentences
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "set_id")
@@ -97,19 +104,19 @@ public class Flashcard {
         this.audio = audio;
     }
 
-    public String getMcqOptions() {
+    public List<String> getMcqOptions() {
         return mcqOptions;
     }
 
-    public void setMcqOptions(String mcqOptions) {
+    public void setMcqOptions(List<String> mcqOptions) {
         this.mcqOptions = mcqOptions;
     }
 
-    public String getSentenceOptions() {
+    public List<String> getSentenceOptions() {
         return sentenceOptions;
     }
 
-    public void setSentenceOptions(String sentenceOptions) {
+    public void setSentenceOptions(List<String> sentenceOptions) {
         this.sentenceOptions = sentenceOptions;
     }
 
@@ -3,11 +3,18 @@ package com.example.backend.model;
 import jakarta.persistence.*;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "flashcard_sets")
+@Table(name = "flashcard_sets", indexes = {
+        @Index(name = "idx_sets_folder_id_id", columnList = "folder_id, id"),
+        @Index(name = "idx_sets_access_id", columnList = "access, id"),
+        @Index(name = "idx_sets_access_created_at_id", columnList = "access, created_at, id")
+})
 public class FlashcardSet {
 
     @Id
@@ -22,6 +29,17 @@ public class FlashcardSet {
     @Column(name = "access", nullable = false)
     private String access = "public";
 
+    // DB default backfills existing rows when the column is added by ddl-auto
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false,
+            columnDefinition = "datetime(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6)")
+    private Instant createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false,
+            columnDefinition = "datetime(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6)")
+    private Instant updatedAt;
+
     @OneToMany(mappedBy = "set", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonManagedReference
     private List<Flashcard> cards = new ArrayList<>();
@@ -66,6 +84,22 @@ public class FlashcardSet {
         this.access = access;
     }
 
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
     public List<Flashcard> getCards() {
         return cards;
     }
@@ -0,0 +1,60 @@
+package com.example.backend.model;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.json.JsonReadFeature;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Stores cached game options as a JSON array of strings. Reads are tolerant of
+ * the encodings used before the columns held JSON, so legacy rows load
+ * instead of failing the whole entity:
+ * <ul>
+ * <li>hand-built arrays whose strings contain raw control characters
+ * (newlines were never escaped) are accepted as is;</li>
+ * <li>plain newline-separated text becomes one option per line;</li>
+ * <li>anything else unreadable maps to null and is regenerated on demand.</li>
+ * </ul>
+ * Values are rewritten as valid JSON the next time a card's options are saved.
+ */
+@Converter
+public class OptionListConverter implements AttributeConverter<List<String>, String> {
+
+    private static final JsonMapper MAPPER = JsonMapper.builder()
+            .enable(JsonReadFeature.ALLOW_UNESCAPED_CONTROL_CHARS)
+            .build();
+    private static final TypeReference<List<String>> LIST = new TypeReference<>() {
+    };
+
+    @Override
+    public String convertToDatabaseColumn(List<String> options) {
+        if (options == null)
+            return null;
+        try {
+            return MAPPER.writeValueAsString(options);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot encode options", e);
+        }
+    }
+
+    @Override
+    public List<String> convertToEntityAttribute(String value) {
+        if (value == null || value.isBlank())
+            return null;
+        String s = value.trim();
+        if (!s.startsWith("[")) {
+            List<String> lines = Arrays.stream(s.split("\n")).map(String::trim).filter(l -> !l.isEmpty()).toList();
+            return lines.isEmpty() ? null : lines;
+        }
+        try {
+            return MAPPER.readValue(s, LIST);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+}
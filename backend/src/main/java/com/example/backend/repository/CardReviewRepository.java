@@ -0,0 +1,46 @@
+package com.example.backend.repository;
+
+import com.example.backend.model.CardReview;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CardReviewRepository extends JpaRepository<CardReview, Long> {
+    Optional<CardReview> findByUserIdAndCardId(Long userId, Long cardId);
+
+    // Range scan on idx_reviews_user_due, stopped after the page size
+    @Query("select r from CardReview r where r.userId = :userId and r.due <= :now order by r.due asc, r.id asc")
+    List<CardReview> findDue(@Param("userId") Long userId, @Param("now") Instant now, Pageable limit);
+
+    long countByUserIdAndDueLessThanEqual(Long userId, Instant now);
+
+    @Query("select r.cardId from CardReview r where r.userId = :userId and r.setId = :setId")
+    List<Long> findCardIdsByUserIdAndSetId(@Param("userId") Long userId, @Param("setId") Long setId);
+
+    // card_id carries no FK when the schema comes from ddl-auto, so card, set and
+    // folder deletes clear every user's review state themselves
+    @Modifying
+    @Query("delete from CardReview r where r.cardId = :cardId")
+    int deleteByCardId(@Param("cardId") Long cardId);
+
+    @Modifying
+    @Query("delete from CardReview r where r.cardId in (select f.id from Flashcard f where f.set.id = :setId)")
+    int deleteByCardSetId(@Param("setId") Long setId);
+
+    @Modifying
+    @Query("delete from CardReview r where r.cardId in"
+            + " (select f.id from Flashcard f where f.set.folder.id = :folderId)")
+    int deleteByCardFolderId(@Param("folderId") Long folderId);
+
+    @Modifying
+    @Query("delete from CardReview r where r.id in :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
+}
@@ -1,13 +1,39 @@
 package com.example.backend.repository;
 
 import com.example.backend.model.Flashcard;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface FlashcardRepository extends JpaRepository<Flashcard, Long> {
     List<Flashcard> findBySetId(Long setId);
+
+    Page<Flashcard> findBySetId(Long setId, Pageable pageable);
+
+    // Cards of the other sets in a folder with the given access; callers always pass a
+    // page size to bound the read
+    List<Flashcard> findBySetFolderIdAndSetAccessAndSetIdNot(Long folderId, String access, Long setId,
+            Pageable pageable);
+
     long countBySetId(Long setId);
+
+    long countByMcqOptionsIsNotNull();
+
+    long countBySentenceOptionsIsNotNull();
+
+    @Query("select f.set.id as setId, count(f) as cardCount from Flashcard f where f.set.id in :setIds group by f.set.id")
+    List<SetCardCount> countBySetIds(@Param("setIds") Collection<Long> setIds);
+
+    interface SetCardCount {
+        Long getSetId();
+
+        long getCardCount();
+    }
 }
@@ -1,18 +1,62 @@
 package com.example.backend.repository;
 
 import com.example.backend.model.FlashcardSet;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
 
 @Repository
 public interface FlashcardSetRepository extends JpaRepository<FlashcardSet, Long> {
+    @EntityGraph(attributePaths = { "folder", "folder.user" })
     List<FlashcardSet> findByFolderId(Long folderId);
 
+    // All sets owned by a user, resolved through folders.user_id (see idx_folders_user_id_id)
+    @EntityGraph(attributePaths = { "folder", "folder.user" })
+    List<FlashcardSet> findByFolderUserId(Long userId);
+
     List<FlashcardSet> findByAccess(String access);
 
+    // Fetch folder + owner in the same select so list pages don't issue one query per set
+    @EntityGraph(attributePaths = { "folder", "folder.user" })
     Page<FlashcardSet> findByAccess(String access, Pageable pageable);
+
+    // Keyset (seek) pages for the public feed. The Pageable only carries the limit;
+    // returning a List keeps Spring Data from issuing a COUNT(*) per page.
+    @EntityGraph(attributePaths = { "folder", "folder.user" })
+    @Query("select s from FlashcardSet s where s.access = :access and s.id < :id order by s.id desc")
+    List<FlashcardSet> findByAccessBeforeId(@Param("access") String access, @Param("id") long id, Pageable limit);
+
+    @EntityGraph(attributePaths = { "folder", "folder.user" })
+    @Query("select s from FlashcardSet s where s.access = :access and s.id > :id order by s.id asc")
+    List<FlashcardSet> findByAccessAfterId(@Param("access") String access, @Param("id") long id, Pageable limit);
+
+    // First keyset page for any whitelisted sort; the Pageable carries limit + Sort
+    @EntityGraph(attributePaths = { "folder", "folder.user" })
+    @Query("select s from FlashcardSet s where s.access = :access")
+    List<FlashcardSet> findFirstByAccess(@Param("access") String access, Pageable limit);
+
+    // (created_at, id) seeks, expanded from the row comparison so MySQL uses a range
+    // scan on idx_sets_access_created_at_id
+    @EntityGraph(attributePaths = { "folder", "folder.user" })
+    @Query("select s from FlashcardSet s where s.access = :access"
+            + " and (s.createdAt < :createdAt or (s.createdAt = :createdAt and s.id < :id))"
+            + " order by s.createdAt desc, s.id desc")
+    List<FlashcardSet> findByAccessBeforeCreatedAt(@Param("access") String access,
+            @Param("createdAt") Instant createdAt, @Param("id") long id, Pageable limit);
+
+    @EntityGraph(attributePaths = { "folder", "folder.user" })
+    @Query("select s from FlashcardSet s where s.access = :access"
+            + " and (s.createdAt > :createdAt or (s.createdAt = :createdAt and s.id > :id))"
+            + " order by s.createdAt asc, s.id asc")
+    List<FlashcardSet> findByAccessAfterCreatedAt(@Param("access") String access,
+            @Param("createdAt") Instant createdAt, @Param("id") long id, Pageable limit);
+
+    long countByAccess(String access);
 }
@@ -1,10 +1,17 @@
 package com.example.backend.repository;
 
 import com.example.backend.model.UserProfile;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface UserProfileRepository extends JpaRepository<UserProfile, Long> {
     UserProfile findByUserId(Long userId);
+
+    @EntityGraph(attributePaths = { "user" })
+    List<UserProfile> findByUserIdIn(Collection<Long> userIds);
 }
@@ -2,8 +2,11 @@ package com.example.backend.repository;
 
 import com.example.backend.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +14,20 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
 
     Optional<User> findByEmail(String email);
+
+    // Both columns are uniquely indexed, so MySQL answers this with an index merge
+    @Query("select u from User u where u.username = :identifier or u.email = :identifier")
+    List<User> findAllByUsernameOrEmail(@Param("identifier") String identifier);
+
+    /**
+     * Login lookup in a single query. If the identifier is one user's username
+     * and another user's email, the username match wins.
+     */
+    default Optional<User> findByUsernameOrEmail(String identifier) {
+        List<User> users = findAllByUsernameOrEmail(identifier);
+        if (users.size() <= 1)
+            return users.stream().findFirst();
+        return users.stream().filter(u -> identifier.equalsIgnoreCase(u.getUsername())).findFirst()
+                .or(() -> users.stream().findFirst());
+    }
 }
@@ -0,0 +1,17 @@
+package com.example.backend.security;
+
+import java.security.Principal;
+
+/**
+ * Principal placed in the SecurityContext by {@link JwtAuthenticationFilter}.
+ * Carries the user id so controllers don't have to look the user up again;
+ * {@link #getName()} is the username, so {@code Authentication.getName()}
+ * keeps working.
+ */
+public record AuthenticatedUser(Long id, String username) implements Principal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
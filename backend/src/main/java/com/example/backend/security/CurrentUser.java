@@ -0,0 +1,27 @@
+package com.example.backend.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Access to the authenticated principal of the current request.
+ */
+public final class CurrentUser {
+
+    private CurrentUser() {
+    }
+
+    /** The authenticated user, or null for anonymous requests. */
+    public static AuthenticatedUser get() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof AuthenticatedUser user)
+            return user;
+        return null;
+    }
+
+    /** The authenticated user's id, or null for anonymous requests. */
+    public static Long id() {
+        AuthenticatedUser user = get();
+        return user == null ? null : user.id();
+    }
+}
@@ -2,6 +2,7 @@ package com.example.backend.security;
 
 import com.example.backend.model.User;
 import com.example.backend.repository.UserRepository;
+import io.jsonwebtoken.Claims;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpHeaders;
@@ -22,10 +23,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
     private final JwtUtil jwtUtil;
+    private final PrincipalCache principalCache;
     private final UserRepository userRepo;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserRepository userRepo) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, PrincipalCache principalCache, UserRepository userRepo) {
         this.jwtUtil = jwtUtil;
+        this.principalCache = principalCache;
         this.userRepo = userRepo;
     }
 
@@ -41,27 +44,28 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         } else {
             String token = header.substring(7);
             try {
-                boolean valid = jwtUtil.validateToken(token);
-                if (!valid) {
+                // One parse verifies the signature and expiry and yields the claims
+                Claims claims = jwtUtil.parseClaims(token);
+                String username = claims == null ? null : claims.getSubject();
+                if (claims == null) {
                     log.debug("JWT validation failed for token: {}... (first 8 chars)",
                             token.length() > 8 ? token.substring(0, 8) : token);
+                } else if (username == null) {
+                    log.debug("JWT validated but has no subject");
+                } else if (JwtUtil.isRefresh(claims)) {
+                    log.debug("Refresh token presented as access token for {}", username);
+                } else if (SecurityContextHolder.getContext().getAuthentication() != null) {
+                    log.debug("SecurityContext already contains authentication for request");
                 } else {
-                    String username = jwtUtil.extractUsername(token);
-                    if (username == null) {
-                        log.debug("JWT validated but username extraction returned null");
-                    } else if (SecurityContextHolder.getContext().getAuthentication() != null) {
-                        log.debug("SecurityContext already contains authentication for request");
+                    AuthenticatedUser principal = resolve(claims, username);
+                    if (principal == null) {
+                        log.debug("User from token no longer valid or token revoked: {}", username);
                     } else {
-                        User u = userRepo.findByUsername(username).orElse(null);
-                        if (u == null) {
-                            log.debug("User from token not found in DB: {}", username);
-                        } else {
-                            UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
-                                    u.getUsername(), null, Collections.emptyList());
-                            auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                            SecurityContextHolder.getContext().setAuthentication(auth);
-                            log.debug("Authenticated request as {}", username);
-                        }
+                        UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
+                                principal, null, Collections.emptyList());
+                        auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                        SecurityContextHolder.getContext().setAuthentication(auth);
+                        log.debug("Authenticated request as {}", username);
                     }
                 }
             } catch (Exception ex) {
@@ -70,4 +74,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         filterChain.doFilter(request, response);
     }
+
+    private AuthenticatedUser resolve(Claims claims, String username) {
+        Long userId = JwtUtil.userId(claims);
+        int version = JwtUtil.tokenVersion(claims);
+        if (userId != null)
+            return principalCache.resolve(userId, username, version);
+        // Tokens issued before the id claim existed
+        User u = userRepo.findByUsername(username).orElse(null);
+        if (u == null || u.getTokenVersion() != version)
+            return null;
+        return new AuthenticatedUser(u.getId(), u.getUsername());
+    }
 }
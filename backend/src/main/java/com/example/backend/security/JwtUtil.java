@@ -4,8 +4,8 @@ import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -17,12 +17,29 @@ import java.util.Date;
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
-    private String secret;
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_TYPE = "typ";
+    public static final String CLAIM_VERSION = "ver";
+    public static final String TYPE_ACCESS = "access";
+    public static final String TYPE_REFRESH = "refresh";
 
-    private final long validity = 1000L * 60 * 60 * 24;
+    private final long accessValidityMs;
+    private final long refreshValidityMs;
 
-    private SecretKey getSigningKey() {
+    // Derived once; both are immutable and thread-safe
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+
+    public JwtUtil(@Value("${jwt.secret}") String secret,
+            @Value("${jwt.access-ttl-ms:900000}") long accessValidityMs,
+            @Value("${jwt.refresh-ttl-ms:1209600000}") long refreshValidityMs) {
+        this.accessValidityMs = accessValidityMs;
+        this.refreshValidityMs = refreshValidityMs;
+        this.signingKey = deriveSigningKey(secret);
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+    }
+
+    private static SecretKey deriveSigningKey(String secret) {
         // HS256 needs a 256-bit key. If the configured secret is too short,
         // derive a 256-bit key by hashing with SHA-256. If it's long enough,
         // use its raw bytes.
@@ -41,39 +58,72 @@ public class JwtUtil {
         return Keys.hmacShaKeyFor(keyBytes);
     }
 
-    public String generateToken(String username) {
+    /**
+     * Short-lived token sent on every request. {@code tokenVersion} is the
+     * user's current version; bumping it revokes every token issued before.
+     */
+    public String generateAccessToken(Long userId, String username, int tokenVersion) {
+        return generate(userId, username, tokenVersion, TYPE_ACCESS, accessValidityMs);
+    }
+
+    /** Long-lived token accepted only by the refresh endpoint. */
+    public String generateRefreshToken(Long userId, String username, int tokenVersion) {
+        return generate(userId, username, tokenVersion, TYPE_REFRESH, refreshValidityMs);
+    }
+
+    public long getAccessValidityMs() {
+        return accessValidityMs;
+    }
+
+    private String generate(Long userId, String username, int tokenVersion, String type, long validityMs) {
         Date now = new Date();
-        Date exp = new Date(now.getTime() + validity);
-        SecretKey key = getSigningKey();
+        Date exp = new Date(now.getTime() + validityMs);
         return Jwts.builder()
                 .setSubject(username)
+                .claim(CLAIM_USER_ID, userId)
+                .claim(CLAIM_VERSION, tokenVersion)
+                .claim(CLAIM_TYPE, type)
                 .setIssuedAt(now)
                 .setExpiration(exp)
-                .signWith(key, SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public String extractUsername(String token) {
+    /**
+     * Verifies the signature and expiry and returns the claims, or null if the
+     * token is invalid or expired. Callers that need several claims should
+     * use this once rather than the single-claim helpers below.
+     */
+    public Claims parseClaims(String token) {
         try {
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-            return claims.getSubject();
-        } catch (ExpiredJwtException e) {
-            return null;
-        } catch (JwtException e) {
+            return parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
             return null;
         }
     }
 
+    public String extractUsername(String token) {
+        Claims claims = parseClaims(token);
+        return claims == null ? null : claims.getSubject();
+    }
+
+    /** The user id claim, or null for tokens issued before it was added. */
+    public static Long userId(Claims claims) {
+        return claims.get(CLAIM_USER_ID, Long.class);
+    }
+
+    /** Token version; tokens issued before versioning count as version 0. */
+    public static int tokenVersion(Claims claims) {
+        Integer version = claims.get(CLAIM_VERSION, Integer.class);
+        return version == null ? 0 : version;
+    }
+
+    /** True for refresh tokens; untyped (older) tokens are access tokens. */
+    public static boolean isRefresh(Claims claims) {
+        return TYPE_REFRESH.equals(claims.get(CLAIM_TYPE, String.class));
+    }
+
     public boolean validateToken(String token) {
-        try {
-            Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(token);
-            return true;
-        } catch (JwtException e) {
-            return false;
-        }
+        return parseClaims(token) != null;
     }
 }
@@ -0,0 +1,144 @@
+package com.example.backend.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory login throttling with sliding-window counters: every attempt
+ * counts against the client IP, and failed attempts count against the
+ * username/email being tried. Checked before any password hashing, so a
+ * throttled request costs a map lookup.
+ * <p>
+ * Each window keeps the previous and current fixed-window counts and weights
+ * the previous one by how much of it still overlaps the sliding window, which
+ * approximates a true sliding log in constant space per key.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private static final class Window {
+        private long start;
+        private int previous;
+        private int current;
+
+        Window(long start) {
+            this.start = start;
+        }
+
+        /** Rolls the window forward to {@code now}; caller holds the lock. */
+        private void roll(long now, long windowMs) {
+            long elapsed = now - start;
+            if (elapsed < windowMs)
+                return;
+            previous = elapsed < 2 * windowMs ? current : 0;
+            current = 0;
+            start += (elapsed / windowMs) * windowMs;
+        }
+
+        synchronized double count(long now, long windowMs) {
+            roll(now, windowMs);
+            double overlap = 1.0 - (double) (now - start) / windowMs;
+            return previous * overlap + current;
+        }
+
+        synchronized void add(long now, long windowMs) {
+            roll(now, windowMs);
+            current++;
+        }
+
+        synchronized boolean isIdle(long now, long windowMs) {
+            return now - start >= 2 * windowMs;
+        }
+    }
+
+    private final long windowMs;
+    private final int maxPerIp;
+    private final int maxFailuresPerIdentifier;
+    private final int maxTrackedKeys;
+    private final Map<String, Window> byIp = new ConcurrentHashMap<>();
+    private final Map<String, Window> byIdentifier = new ConcurrentHashMap<>();
+    private final Counter throttledIp;
+    private final Counter throttledIdentifier;
+
+    public LoginRateLimiter(MeterRegistry registry,
+            @Value("${auth.login.window-ms:60000}") long windowMs,
+            @Value("${auth.login.max-per-ip:30}") int maxPerIp,
+            @Value("${auth.login.max-failures-per-identifier:5}") int maxFailuresPerIdentifier,
+            @Value("${auth.login.max-tracked-keys:100000}") int maxTrackedKeys) {
+        this.windowMs = windowMs;
+        this.maxPerIp = maxPerIp;
+        this.maxFailuresPerIdentifier = maxFailuresPerIdentifier;
+        this.maxTrackedKeys = maxTrackedKeys;
+        this.throttledIp = Counter.builder("auth.login.throttled").tag("scope", "ip")
+                .description("Login attempts refused by the rate limiter")
+                .register(registry);
+        this.throttledIdentifier = Counter.builder("auth.login.throttled").tag("scope", "identifier")
+                .description("Login attempts refused by the rate limiter")
+                .register(registry);
+        Gauge.builder("auth.login.tracked", this, l -> l.byIp.size() + l.byIdentifier.size())
+                .description("IPs and identifiers with an active login window")
+                .register(registry);
+    }
+
+    /**
+     * Records an attempt from {@code ip} and returns whether it may proceed;
+     * refused when either the IP or the identifier is over its limit.
+     */
+    public boolean tryAcquire(String ip, String identifier) {
+        long now = System.currentTimeMillis();
+        Window failures = byIdentifier.get(normalize(identifier));
+        if (failures != null && failures.count(now, windowMs) >= maxFailuresPerIdentifier) {
+            throttledIdentifier.increment();
+            return false;
+        }
+        Window attempts = window(byIp, ip, now);
+        if (attempts == null)
+            return true;
+        if (attempts.count(now, windowMs) >= maxPerIp) {
+            throttledIp.increment();
+            return false;
+        }
+        attempts.add(now, windowMs);
+        return true;
+    }
+
+    public void recordFailure(String identifier) {
+        long now = System.currentTimeMillis();
+        Window failures = window(byIdentifier, normalize(identifier), now);
+        if (failures != null)
+            failures.add(now, windowMs);
+    }
+
+    public void recordSuccess(String identifier) {
+        byIdentifier.remove(normalize(identifier));
+    }
+
+    /** Seconds a refused client should wait before the window has moved on. */
+    public long retryAfterSeconds() {
+        return Math.max(1, windowMs / 1000);
+    }
+
+    /** The window for a key, or null when the table is full even after pruning. */
+    private Window window(Map<String, Window> windows, String key, long now) {
+        Window w = windows.get(key);
+        if (w != null)
+            return w;
+        if (windows.size() >= maxTrackedKeys) {
+            windows.values().removeIf(x -> x.isIdle(now, windowMs));
+            if (windows.size() >= maxTrackedKeys)
+                return null;
+        }
+        return windows.computeIfAbsent(key, k -> new Window(now));
+    }
+
+    private static String normalize(String identifier) {
+        return identifier.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.backend.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs the {@link PasswordEncoder} on {@code passwordHashExecutor} instead of
+ * the request thread, so the number of concurrent BCrypt computations is capped
+ * by that pool no matter how many requests arrive. Both methods throw
+ * {@link RejectedExecutionException} when the pool is saturated or the hash
+ * does not finish within {@code auth.hash.timeout-ms}. A timed-out hash that
+ * has not started yet is dropped from the queue rather than run for nobody.
+ */
+@Component
+public class PasswordHasher {
+
+    private final PasswordEncoder encoder;
+    private final ThreadPoolTaskExecutor executor;
+    private final long timeoutMs;
+    private final Timer encodeTimer;
+    private final Timer matchTimer;
+
+    public PasswordHasher(PasswordEncoder encoder, @Qualifier("passwordHashExecutor") ThreadPoolTaskExecutor executor,
+            MeterRegistry registry,
+            @Value("${auth.hash.timeout-ms:5000}") long timeoutMs) {
+        this.encoder = encoder;
+        this.executor = executor;
+        this.timeoutMs = timeoutMs;
+        // Includes time spent queued, which is what a caller actually waits
+        this.encodeTimer = Timer.builder("auth.hash.duration").tag("op", "encode")
+                .description("Password hash time including queueing")
+                .register(registry);
+        this.matchTimer = Timer.builder("auth.hash.duration").tag("op", "matches")
+                .description("Password hash time including queueing")
+                .register(registry);
+    }
+
+    public String encode(String rawPassword) {
+        return run(encodeTimer, () -> encoder.encode(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return run(matchTimer, () -> encoder.matches(rawPassword, encodedPassword));
+    }
+
+    private <T> T run(Timer timer, Supplier<T> work) {
+        long start = System.nanoTime();
+        FutureTask<T> task = new FutureTask<>(work::get);
+        executor.execute(task);
+        try {
+            return task.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // A cancelled FutureTask never runs; removing it also frees its queue slot
+            task.cancel(false);
+            executor.getThreadPoolExecutor().remove(task);
+            throw new RejectedExecutionException("Password hashing timed out");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while hashing password");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re)
+                throw re;
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.backend.security;
+
+import com.example.backend.model.User;
+import com.example.backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Short-lived, bounded cache of "does this user still exist, under which
+ * username, and at which token version" for token authentication. A deleted
+ * or renamed user stops being accepted within the TTL without a users-table
+ * query on every request.
+ * <p>
+ * The cached token version is the revocation check: tokens carry the version
+ * they were issued at and are rejected once the user's version has moved on.
+ * Revocations on this instance call {@link #evict} and apply immediately;
+ * other instances pick them up within the TTL.
+ */
+@Component
+public class PrincipalCache {
+
+    // user is null when the id no longer exists
+    private record Entry(AuthenticatedUser user, int tokenVersion, long loadedAt) {
+    }
+
+    private final UserRepository userRepo;
+    private final long ttlMs;
+    private final int maxEntries;
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    public PrincipalCache(UserRepository userRepo,
+            @Value("${auth.principal-cache.ttl-ms:60000}") long ttlMs,
+            @Value("${auth.principal-cache.max-entries:10000}") int maxEntries) {
+        this.userRepo = userRepo;
+        this.ttlMs = ttlMs;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * The principal for a token's user id, subject and version, or null if the
+     * user no longer exists, the username has changed or the token has been
+     * revoked since it was issued.
+     */
+    public AuthenticatedUser resolve(Long userId, String username, int tokenVersion) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(userId);
+        if (entry == null || now - entry.loadedAt() > ttlMs) {
+            User u = userRepo.findById(userId).orElse(null);
+            entry = u == null ? new Entry(null, 0, now)
+                    : new Entry(new AuthenticatedUser(u.getId(), u.getUsername()), u.getTokenVersion(), now);
+            if (entries.size() >= maxEntries)
+                evictExpired(now);
+            if (entries.size() < maxEntries)
+                entries.put(userId, entry);
+        }
+        AuthenticatedUser user = entry.user();
+        if (user == null || !user.username().equals(username) || entry.tokenVersion() != tokenVersion)
+            return null;
+        return user;
+    }
+
+    public void evict(Long userId) {
+        entries.remove(userId);
+    }
+
+    private void evictExpired(long now) {
+        entries.values().removeIf(e -> now - e.loadedAt() > ttlMs);
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.backend.service;
+
+import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker. The outcomes of the last {@code windowSize}
+ * calls are kept in a ring buffer; once at least {@code minCalls} are
+ * recorded and the failure rate reaches the threshold the breaker opens and
+ * rejects calls for {@code openMs}. It then lets {@code halfOpenCalls} trial
+ * calls through: if they all succeed it closes, any failure re-opens it.
+ * <p>
+ * Each admitted call gets a {@link Permit} tagged with the breaker generation
+ * (bumped on every state change) it was admitted in. Outcomes of calls
+ * admitted before the last transition are ignored, so a slow call started
+ * while CLOSED cannot be mistaken for a HALF_OPEN trial. Callers must
+ * {@link Permit#complete complete} every permit exactly once, from a
+ * {@code finally} block, so that no trial slot is ever leaked.
+ */
+public final class CircuitBreaker {
+
+    public enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    /** An admitted call. */
+    public final class Permit {
+        private final long generation;
+        private boolean completed;
+
+        private Permit(long generation) {
+            this.generation = generation;
+        }
+
+        /** Reports the call's outcome; later calls on the same permit are ignored. */
+        public void complete(boolean success) {
+            synchronized (CircuitBreaker.this) {
+                if (completed)
+                    return;
+                completed = true;
+                onComplete(this, success);
+            }
+        }
+    }
+
+    private final int windowSize;
+    private final int minCalls;
+    private final double failureRateThreshold;
+    private final long openMs;
+    private final int halfOpenCalls;
+    private final BiConsumer<State, State> onTransition;
+    private final LongSupplier clock;
+
+    private final boolean[] failures;
+    private int recorded;
+    private int next;
+    private int failureCount;
+
+    private State state = State.CLOSED;
+    private long generation;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    public CircuitBreaker(int windowSize, int minCalls, double failureRateThreshold, long openMs,
+            int halfOpenCalls, BiConsumer<State, State> onTransition) {
+        this(windowSize, minCalls, failureRateThreshold, openMs, halfOpenCalls, onTransition,
+                System::currentTimeMillis);
+    }
+
+    CircuitBreaker(int windowSize, int minCalls, double failureRateThreshold, long openMs,
+            int halfOpenCalls, BiConsumer<State, State> onTransition, LongSupplier clock) {
+        this.windowSize = Math.max(1, windowSize);
+        this.minCalls = Math.max(1, Math.min(minCalls, this.windowSize));
+        this.failureRateThreshold = failureRateThreshold;
+        this.openMs = openMs;
+        this.halfOpenCalls = Math.max(1, halfOpenCalls);
+        this.onTransition = onTransition;
+        this.clock = clock;
+        this.failures = new boolean[this.windowSize];
+    }
+
+    /** A permit for one call, or null when the breaker refuses it. */
+    public synchronized Permit tryAcquire() {
+        if (state == State.OPEN) {
+            if (clock.getAsLong() - openedAt < openMs)
+                return null;
+            transition(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits <= 0)
+                return null;
+            halfOpenPermits--;
+        }
+        return new Permit(generation);
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void onComplete(Permit permit, boolean success) {
+        // Admitted under an earlier state: says nothing about the current one
+        if (permit.generation != generation)
+            return;
+        if (state == State.HALF_OPEN) {
+            if (!success)
+                transition(State.OPEN);
+            else if (++halfOpenSuccesses >= halfOpenCalls)
+                transition(State.CLOSED);
+            return;
+        }
+        record(!success);
+        if (!success && state == State.CLOSED && recorded >= minCalls
+                && (double) failureCount / recorded >= failureRateThreshold) {
+            transition(State.OPEN);
+        }
+    }
+
+    private void record(boolean failed) {
+        if (recorded == windowSize) {
+            if (failures[next])
+                failureCount--;
+        } else {
+            recorded++;
+        }
+        failures[next] = failed;
+        if (failed)
+            failureCount++;
+        next = (next + 1) % windowSize;
+    }
+
+    private void transition(State to) {
+        State from = state;
+        state = to;
+        generation++;
+        switch (to) {
+            case OPEN -> openedAt = clock.getAsLong();
+            case HALF_OPEN -> {
+                halfOpenPermits = halfOpenCalls;
+                halfOpenSuccesses = 0;
+            }
+            case CLOSED -> {
+                recorded = 0;
+                next = 0;
+                failureCount = 0;
+            }
+        }
+        if (onTransition != null)
+            onTransition.accept(from, to);
+    }
+}
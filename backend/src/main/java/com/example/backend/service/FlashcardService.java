@@ -2,9 +2,13 @@ package com.example.backend.service;
 
 import com.example.backend.model.Flashcard;
 import com.example.backend.model.FlashcardSet;
+import com.example.backend.repository.CardReviewRepository;
 import com.example.backend.repository.FlashcardRepository;
 import com.example.backend.repository.FlashcardSetRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -13,10 +17,18 @@ public class FlashcardService {
 
     private final FlashcardRepository cardRepo;
     private final FlashcardSetRepository setRepo;
+    private final OptionPregenerator pregenerator;
+    private final LocalDistractorEngine localDistractors;
+    private final CardReviewRepository reviewRepo;
 
-    public FlashcardService(FlashcardRepository cardRepo, FlashcardSetRepository setRepo) {
+    public FlashcardService(FlashcardRepository cardRepo, FlashcardSetRepository setRepo,
+            OptionPregenerator pregenerator, LocalDistractorEngine localDistractors,
+            CardReviewRepository reviewRepo) {
         this.cardRepo = cardRepo;
         this.setRepo = setRepo;
+        this.pregenerator = pregenerator;
+        this.localDistractors = localDistractors;
+        this.reviewRepo = reviewRepo;
     }
 
     public List<Flashcard> findAllBySet(Long setId) {
@@ -25,6 +37,10 @@ public class FlashcardService {
         return setRepo.findById(setId).map(FlashcardSet::getCards).orElse(List.of());
     }
 
+    public Page<Flashcard> findBySet(Long setId, Pageable pageable) {
+        return cardRepo.findBySetId(setId, pageable);
+    }
+
     public Flashcard findById(Long id) {
         return cardRepo.findById(id).orElse(null);
     }
@@ -38,6 +54,9 @@ public class FlashcardService {
         // ensure association
         set.getCards().add(saved);
         setRepo.save(set);
+        // warm game option caches in the background
+        pregenerator.enqueue(saved.getId());
+        localDistractors.invalidate(setId);
         return saved;
     }
 
@@ -55,11 +74,20 @@ public class FlashcardService {
                 existing.setType(updated.getType());
             if (updated.getAudio() != null)
                 existing.setAudio(updated.getAudio());
-            return cardRepo.save(existing);
+            Flashcard saved = cardRepo.save(existing);
+            if (saved.getSet() != null)
+                localDistractors.invalidate(saved.getSet().getId());
+            return saved;
         }).orElse(null);
     }
 
+    @Transactional
     public void delete(Long id) {
+        cardRepo.findById(id).ifPresent(card -> {
+            if (card.getSet() != null)
+                localDistractors.invalidate(card.getSet().getId());
+        });
+        reviewRepo.deleteByCardId(id);
         cardRepo.deleteById(id);
     }
 }
\ No newline at end of file
@@ -1,20 +1,35 @@
 package com.example.backend.service;
 
 import com.example.backend.model.FlashcardSet;
+import com.example.backend.repository.CardReviewRepository;
 import com.example.backend.repository.FlashcardSetRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 @Service
 public class FlashcardSetService {
 
+    private static final long PUBLIC_COUNT_TTL_MS = 60_000;
+
     private final FlashcardSetRepository repo;
+    private final LocalDistractorEngine localDistractors;
+    private final CardReviewRepository reviewRepo;
+
+    // Approximate total for the keyset feed, refreshed at most once per TTL
+    private volatile long publicCount = -1;
+    private volatile long publicCountAt;
 
-    public FlashcardSetService(FlashcardSetRepository repo) {
+    public FlashcardSetService(FlashcardSetRepository repo, LocalDistractorEngine localDistractors,
+            CardReviewRepository reviewRepo) {
         this.repo = repo;
+        this.localDistractors = localDistractors;
+        this.reviewRepo = reviewRepo;
     }
 
     public List<FlashcardSet> findAll() {
@@ -25,6 +40,10 @@ public class FlashcardSetService {
         return repo.findByFolderId(folderId);
     }
 
+    public List<FlashcardSet> findByOwnerId(Long userId) {
+        return repo.findByFolderUserId(userId);
+    }
+
     public List<FlashcardSet> findPublic() {
         return repo.findByAccess("public");
     }
@@ -33,6 +52,37 @@ public class FlashcardSetService {
         return repo.findByAccess("public", pageable);
     }
 
+    /**
+     * Next page of public sets after {@code cursor} (or the first page when the
+     * cursor is null), ordered by {@code sortBy} then id. Fetches at most
+     * {@code limit} rows; {@code sortBy} must be "createdAt" or "id".
+     */
+    public List<FlashcardSet> findPublicAfter(SetCursor cursor, String sortBy, boolean descending, int limit) {
+        if (cursor == null) {
+            Sort.Direction dir = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+            Sort sort = "id".equals(sortBy) ? Sort.by(dir, "id") : Sort.by(dir, sortBy, "id");
+            return repo.findFirstByAccess("public", PageRequest.of(0, limit, sort));
+        }
+        Pageable pageable = PageRequest.of(0, limit);
+        if ("createdAt".equals(cursor.getSortBy())) {
+            return descending
+                    ? repo.findByAccessBeforeCreatedAt("public", cursor.keyAsInstant(), cursor.getId(), pageable)
+                    : repo.findByAccessAfterCreatedAt("public", cursor.keyAsInstant(), cursor.getId(), pageable);
+        }
+        return descending
+                ? repo.findByAccessBeforeId("public", cursor.getId(), pageable)
+                : repo.findByAccessAfterId("public", cursor.getId(), pageable);
+    }
+
+    public long countPublicCached() {
+        long now = System.currentTimeMillis();
+        if (publicCount < 0 || now - publicCountAt > PUBLIC_COUNT_TTL_MS) {
+            publicCount = repo.countByAccess("public");
+            publicCountAt = now;
+        }
+        return publicCount;
+    }
+
     public FlashcardSet findById(Long id) {
         return repo.findById(id).orElse(null);
     }
@@ -45,15 +95,29 @@ public class FlashcardSetService {
         return repo.findById(id).map(existing -> {
             existing.setTitle(updated.getTitle());
             existing.setDescription(updated.getDescription());
+            // Sibling pools only take sets of the same access, so an access change
+            // reshuffles them like a move does
+            boolean accessChanged = updated.getAccess() != null && !updated.getAccess().equals(existing.getAccess());
             if (updated.getAccess() != null)
                 existing.setAccess(updated.getAccess());
-            if (updated.getFolder() != null)
+            boolean moved = updated.getFolder() != null;
+            if (moved || accessChanged) {
+                // pools in the old folder hold this set's cards as sibling candidates
+                localDistractors.invalidate(id);
+            }
+            if (moved)
                 existing.setFolder(updated.getFolder());
-            return repo.save(existing);
+            FlashcardSet saved = repo.save(existing);
+            if (moved || accessChanged)
+                localDistractors.invalidate(id);
+            return saved;
         }).orElse(null);
     }
 
+    @Transactional
     public void delete(Long id) {
+        localDistractors.invalidate(id);
+        reviewRepo.deleteByCardSetId(id);
         repo.deleteById(id);
     }
 }
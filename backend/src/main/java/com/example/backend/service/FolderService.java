@@ -2,17 +2,21 @@ package com.example.backend.service;
 
 import com.example.backend.model.Folder;
 import com.example.backend.model.User;
+import com.example.backend.repository.CardReviewRepository;
 import com.example.backend.repository.FolderRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 @Service
 public class FolderService {
     private final FolderRepository repo;
+    private final CardReviewRepository reviewRepo;
 
-    public FolderService(FolderRepository repo) {
+    public FolderService(FolderRepository repo, CardReviewRepository reviewRepo) {
         this.repo = repo;
+        this.reviewRepo = reviewRepo;
     }
 
     public List<Folder> findAll() {
@@ -42,7 +46,9 @@ public class FolderService {
         }).orElse(null);
     }
 
+    @Transactional
     public void delete(Long id) {
+        reviewRepo.deleteByCardFolderId(id);
         repo.deleteById(id);
     }
 }
\ No newline at end of file
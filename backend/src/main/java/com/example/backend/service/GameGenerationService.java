@@ -0,0 +1,176 @@
+package com.example.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Model-service calls that generate game content (MCQ distractors and
+ * example sentences). Callers cache the results on the card themselves.
+ * Failures are thrown to the caller so it can decide between retrying
+ * (pre-generation) and degrading (interactive game requests).
+ * <p>
+ * Large inputs go through the {@code *Chunked} variants, which split the work
+ * into fixed-size chunks sent concurrently on the shared model-service pool.
+ * Each chunk has its own timeout; chunks that fail or time out are skipped
+ * and the rest are merged.
+ */
+@Service
+public class GameGenerationService {
+
+    private static final Logger log = LoggerFactory.getLogger(GameGenerationService.class);
+
+    private final ModelServiceClient modelService;
+    private final Executor modelExecutor;
+    private final int chunkSize;
+    private final int parallelism;
+    private final long chunkTimeoutMs;
+
+    public GameGenerationService(ModelServiceClient modelService,
+            @Qualifier("modelServiceExecutor") Executor modelExecutor,
+            @Value("${game.generate.chunk-size:25}") int chunkSize,
+            @Value("${game.generate.parallelism:4}") int parallelism,
+            @Value("${game.generate.chunk-timeout-ms:20000}") long chunkTimeoutMs) {
+        this.modelService = modelService;
+        this.modelExecutor = modelExecutor;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.parallelism = Math.max(1, parallelism);
+        this.chunkTimeoutMs = chunkTimeoutMs;
+    }
+
+    /**
+     * @param pairs maps with "term" and "definition"
+     * @return questions with "term", "correct" and "options"
+     */
+    @SuppressWarnings("unchecked")
+    public List<Map<String, Object>> generateDistractors(List<Map<String, String>> pairs, int optionsCount) {
+        Map<String, Object> payload = Map.of("options_count", optionsCount, "pairs", pairs);
+        Map<String, Object> root = modelService.postJson(ModelServiceClient.GENERATE_DISTRACTORS, payload);
+        Object qs = root == null ? null : root.get("questions");
+        if (qs instanceof List<?>) {
+            return (List<Map<String, Object>>) qs;
+        }
+        throw new IllegalStateException("Model service returned no questions for /generate-distractors");
+    }
+
+    /**
+     * @return questions with "word", "sentences" and "correct_index"
+     */
+    @SuppressWarnings("unchecked")
+    public List<Map<String, Object>> generateSentences(List<String> words, int optionsCount) {
+        Map<String, Object> payload = Map.of("options_count", optionsCount, "words", words);
+        Map<String, Object> root = modelService.postJson(ModelServiceClient.GENERATE_SENTENCES, payload);
+        Object qs = root == null ? null : root.get("questions");
+        if (qs instanceof List<?>) {
+            return (List<Map<String, Object>>) qs;
+        }
+        throw new IllegalStateException("Model service returned no questions for /generate-sentences");
+    }
+
+    /**
+     * Chunked, concurrent form of {@link #generateDistractors}. {@code onChunk}
+     * (may be null) receives each chunk's questions as soon as it completes.
+     */
+    public List<Map<String, Object>> generateDistractorsChunked(List<Map<String, String>> pairs, int optionsCount,
+            Consumer<List<Map<String, Object>>> onChunk) {
+        return runChunked("generate-distractors", pairs, chunk -> generateDistractors(chunk, optionsCount), onChunk);
+    }
+
+    /**
+     * Chunked, concurrent form of {@link #generateSentences}.
+     */
+    public List<Map<String, Object>> generateSentencesChunked(List<String> words, int optionsCount,
+            Consumer<List<Map<String, Object>>> onChunk) {
+        return runChunked("generate-sentences", words, chunk -> generateSentences(chunk, optionsCount), onChunk);
+    }
+
+    private <T> List<Map<String, Object>> runChunked(String what, List<T> items,
+            Function<List<T>, List<Map<String, Object>>> call, Consumer<List<Map<String, Object>>> onChunk) {
+        if (items.isEmpty())
+            return List.of();
+        if (items.size() <= chunkSize) {
+            List<Map<String, Object>> result = call.apply(items);
+            deliver(onChunk, result);
+            return result;
+        }
+
+        int chunks = (items.size() + chunkSize - 1) / chunkSize;
+        List<List<Map<String, Object>>> results = new ArrayList<>(chunks);
+        for (int i = 0; i < chunks; i++) {
+            results.add(List.of());
+        }
+        List<CompletableFuture<Void>> pending = new ArrayList<>(chunks);
+        // Bounds how many chunks of this request are in flight at once
+        Semaphore inFlight = new Semaphore(parallelism);
+        Object mergeLock = new Object();
+        try {
+            for (int i = 0; i < chunks; i++) {
+                List<T> chunk = items.subList(i * chunkSize, Math.min(items.size(), (i + 1) * chunkSize));
+                int index = i;
+                inFlight.acquire();
+                CompletableFuture<List<Map<String, Object>>> task;
+                try {
+                    task = CompletableFuture.supplyAsync(() -> call.apply(chunk), modelExecutor);
+                } catch (RejectedExecutionException e) {
+                    inFlight.release();
+                    log.warn("Skipping {} chunk {}/{}: {}", what, index + 1, chunks, e.getMessage());
+                    continue;
+                }
+                // Release on the real completion, not the timeout, so a slow call keeps its slot
+                task.whenComplete((r, e) -> inFlight.release());
+                pending.add(task.copy().orTimeout(chunkTimeoutMs, TimeUnit.MILLISECONDS)
+                        .handle((r, e) -> {
+                            if (e != null) {
+                                log.warn("{} chunk {}/{} failed: {}", what, index + 1, chunks, e.toString());
+                                return null;
+                            }
+                            synchronized (mergeLock) {
+                                results.set(index, r);
+                                deliver(onChunk, r);
+                            }
+                            return null;
+                        }));
+            }
+            // Interruptible, so a stream whose client went away can give up its worker;
+            // chunks still running then complete without being merged or cached
+            CompletableFuture.allOf(pending.toArray(new CompletableFuture[0])).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // pending futures handle their own failures
+        }
+
+        List<Map<String, Object>> merged = new ArrayList<>();
+        synchronized (mergeLock) {
+            for (List<Map<String, Object>> r : results) {
+                merged.addAll(r);
+            }
+        }
+        return merged;
+    }
+
+    private static void deliver(Consumer<List<Map<String, Object>>> onChunk, List<Map<String, Object>> chunk) {
+        if (onChunk == null)
+            return;
+        try {
+            onChunk.accept(chunk);
+        } catch (RuntimeException e) {
+            // a failing consumer (e.g. a closed stream) must not discard the chunk
+            log.debug("Chunk consumer failed: {}", e.toString());
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.backend.service;
+
+import com.example.backend.model.Flashcard;
+import com.example.backend.repository.FlashcardRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Persists generated game options (MCQ distractors, example sentences) back
+ * onto their cards. Runs off the request thread in a single transaction so
+ * Hibernate can flush all changes as one JDBC batch (see
+ * hibernate.jdbc.batch_size / order_updates). The returned future completes
+ * once the transaction has committed.
+ */
+@Service
+public class GameOptionsWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(GameOptionsWriter.class);
+
+    private final FlashcardRepository flashcardRepository;
+
+    public GameOptionsWriter(FlashcardRepository flashcardRepository) {
+        this.flashcardRepository = flashcardRepository;
+    }
+
+    @Async("persistenceExecutor")
+    @Transactional
+    public CompletableFuture<Void> saveMcqOptions(Map<Long, List<String>> optionsByCardId) {
+        if (optionsByCardId.isEmpty())
+            return CompletableFuture.completedFuture(null);
+        for (Flashcard card : flashcardRepository.findAllById(optionsByCardId.keySet())) {
+            card.setMcqOptions(optionsByCardId.get(card.getId()));
+        }
+        log.debug("Queued MCQ option write-back for {} cards", optionsByCardId.size());
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Async("persistenceExecutor")
+    @Transactional
+    public CompletableFuture<Void> saveSentenceOptions(Map<Long, List<String>> optionsByCardId) {
+        if (optionsByCardId.isEmpty())
+            return CompletableFuture.completedFuture(null);
+        for (Flashcard card : flashcardRepository.findAllById(optionsByCardId.keySet())) {
+            card.setSentenceOptions(optionsByCardId.get(card.getId()));
+        }
+        log.debug("Queued sentence option write-back for {} cards", optionsByCardId.size());
+        return CompletableFuture.completedFuture(null);
+    }
+}
@@ -0,0 +1,310 @@
+package com.example.backend.service;
+
+import com.example.backend.model.Flashcard;
+import com.example.backend.repository.FlashcardRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Builds game questions for a set from the cached options on its cards.
+ * Multiple-choice cards without cached options get local distractors from
+ * {@link LocalDistractorEngine} and are queued for model-service enrichment;
+ * only cards the local engine cannot serve (and all sentence-choice cards)
+ * are generated synchronously and written back.
+ */
+@Service
+public class GameQuestionService {
+
+    private final FlashcardRepository flashcardRepository;
+    private final GameGenerationService generationService;
+    private final GameOptionsWriter optionsWriter;
+    private final LocalDistractorEngine localDistractors;
+    private final OptionPregenerator pregenerator;
+    private static final Logger log = LoggerFactory.getLogger(GameQuestionService.class);
+
+    private record GenerationKey(long setId, String game, int optionsCount) {
+    }
+
+    private final SingleFlight<GenerationKey, List<Map<String, Object>>> generationFlights = new SingleFlight<>();
+
+    public GameQuestionService(FlashcardRepository flashcardRepository, GameGenerationService generationService,
+            GameOptionsWriter optionsWriter, LocalDistractorEngine localDistractors,
+            OptionPregenerator pregenerator) {
+        this.flashcardRepository = flashcardRepository;
+        this.generationService = generationService;
+        this.optionsWriter = optionsWriter;
+        this.localDistractors = localDistractors;
+        this.pregenerator = pregenerator;
+    }
+
+    /**
+     * Multiple-choice questions ("term", "correct", "options") for every card
+     * of the set, generating and caching options for cards that have none.
+     */
+    public List<Map<String, Object>> multipleChoice(Long setId, int optionsCount) {
+        List<Map<String, Object>> questions = new ArrayList<>();
+        multipleChoice(setId, optionsCount, questions::addAll);
+        return questions;
+    }
+
+    /**
+     * Streaming form of {@link #multipleChoice(Long, int)}: cached questions
+     * are passed to {@code sink} first, then generated ones batch by batch as
+     * model-service chunks complete. Batches may arrive on other threads but
+     * never concurrently.
+     */
+    public void multipleChoice(Long setId, int optionsCount, Consumer<List<Map<String, Object>>> sink) {
+        int nDistractors = Math.max(2, optionsCount - 1);
+        List<Flashcard> cards = flashcardRepository.findBySetId(setId);
+        if (cards == null || cards.isEmpty()) {
+            return;
+        }
+
+        List<Map<String, Object>> questions = new ArrayList<>();
+        List<Map<String, String>> toGenerate = new ArrayList<>();
+        Map<String, Flashcard> byTerm = new HashMap<>();
+        LocalDistractorEngine.Pool pool = null;
+
+        for (Flashcard c : cards) {
+            String term = Optional.ofNullable(c.getWord()).orElse("").trim();
+            String correct = Optional.ofNullable(c.getDefinition()).orElse("").trim();
+            if (term.isEmpty())
+                continue;
+            byTerm.put(term, c);
+            List<String> cached = c.getMcqOptions();
+            if (cached != null && !cached.isEmpty()) {
+                List<String> options = new ArrayList<>(cached);
+                if (options.stream().noneMatch(o -> o.equalsIgnoreCase(correct))) {
+                    options.add(correct);
+                }
+                options = shuffleWithCorrect(correct, options, nDistractors);
+                questions.add(Map.of("term", term, "correct", correct, "options", options));
+                continue;
+            }
+            if (localDistractors.isEnabled()) {
+                if (pool == null)
+                    pool = localDistractors.poolFor(setId);
+                List<String> local = localDistractors.distractors(pool, c, correct, nDistractors);
+                if (local != null) {
+                    questions.add(Map.of("term", term, "correct", correct, "options",
+                            shuffleWithCorrect(correct, local, nDistractors)));
+                    // model-generated options replace the local ones once they are cached
+                    pregenerator.enqueue(c.getId());
+                    continue;
+                }
+            }
+            toGenerate.add(Map.of("term", term, "definition", correct));
+        }
+        if (!questions.isEmpty())
+            sink.accept(questions);
+
+        if (!toGenerate.isEmpty()) {
+            // Terms already handed to the sink, so chunks streamed by this request
+            // are not repeated when the merged result comes back
+            Set<String> delivered = ConcurrentHashMap.newKeySet();
+            Consumer<List<Map<String, Object>>> onChunk = chunk -> emit(sink,
+                    toMcqQuestions(chunk, byTerm, nDistractors, delivered));
+            List<Map<String, Object>> gen;
+            try {
+                // Concurrent players of the same set share one generation call and write-back;
+                // only the request that starts it sees per-chunk progress. The flight stays
+                // open until the write-back commits, so a request arriving in between finds
+                // either the flight or the cached options, never neither.
+                gen = generationFlights.run(
+                        new GenerationKey(setId, "multiple-choice", optionsCount),
+                        () -> generateAndCacheMcq(toGenerate, byTerm, optionsCount, onChunk));
+            } catch (Exception ex) {
+                log.warn("Multiple-choice generation for set {} failed: {}", setId, ex.toString());
+                return;
+            }
+            // Outside the try: a sink failure (e.g. a closed stream) is the caller's, not generation's
+            emit(sink, toMcqQuestions(gen, byTerm, nDistractors, delivered));
+        }
+    }
+
+    /**
+     * Sentence-choice questions ("word", "sentences", "correct_index") for
+     * every card of the set.
+     */
+    public List<Map<String, Object>> sentenceChoice(Long setId, int optionsCount) {
+        List<Map<String, Object>> questions = new ArrayList<>();
+        sentenceChoice(setId, optionsCount, questions::addAll);
+        return questions;
+    }
+
+    /**
+     * Streaming form of {@link #sentenceChoice(Long, int)}, see
+     * {@link #multipleChoice(Long, int, Consumer)}.
+     */
+    public void sentenceChoice(Long setId, int optionsCount, Consumer<List<Map<String, Object>>> sink) {
+        int nOptions = Math.max(2, optionsCount);
+        List<Flashcard> cards = flashcardRepository.findBySetId(setId);
+        if (cards == null || cards.isEmpty()) {
+            return;
+        }
+
+        List<Map<String, Object>> questions = new ArrayList<>();
+        List<Map<String, String>> toGenerate = new ArrayList<>();
+        Map<String, Flashcard> byWord = new HashMap<>();
+
+        for (Flashcard c : cards) {
+            String word = Optional.ofNullable(c.getWord()).orElse("").trim();
+            if (word.isEmpty())
+                continue;
+            byWord.put(word, c);
+            List<String> sentences = c.getSentenceOptions();
+            if (sentences != null && !sentences.isEmpty()) {
+                if (sentences.size() > nOptions)
+                    sentences = sentences.subList(0, nOptions);
+                int correctIdx = 0;
+                questions.add(Map.of("word", word, "sentences", sentences, "correct_index", correctIdx));
+            } else {
+                toGenerate.add(Map.of("word", word));
+            }
+        }
+        if (!questions.isEmpty())
+            sink.accept(questions);
+
+        if (!toGenerate.isEmpty()) {
+            Set<String> delivered = ConcurrentHashMap.newKeySet();
+            Consumer<List<Map<String, Object>>> onChunk = chunk -> emit(sink,
+                    toSentenceQuestions(chunk, byWord, nOptions, delivered));
+            List<Map<String, Object>> gen;
+            try {
+                gen = generationFlights.run(
+                        new GenerationKey(setId, "sentence-choice", nOptions),
+                        () -> generateAndCacheSentences(toGenerate, byWord, nOptions, onChunk));
+            } catch (Exception ex) {
+                log.warn("Sentence-choice generation for set {} failed: {}", setId, ex.toString());
+                return;
+            }
+            emit(sink, toSentenceQuestions(gen, byWord, nOptions, delivered));
+        }
+    }
+
+    private List<Map<String, Object>> toMcqQuestions(List<Map<String, Object>> gen, Map<String, Flashcard> byTerm,
+            int nDistractors, Set<String> delivered) {
+        List<Map<String, Object>> questions = new ArrayList<>();
+        for (Map<String, Object> q : gen) {
+            String term = Objects.toString(q.get("term"), "");
+            String correct = Objects.toString(q.get("correct"), "");
+            @SuppressWarnings("unchecked")
+            List<String> generated = (List<String>) q.getOrDefault("options", List.of());
+            if (!byTerm.containsKey(term) || generated == null || generated.isEmpty() || !delivered.add(term))
+                continue;
+            // copy: the generated list may be shared with other waiting requests
+            List<String> opts = new ArrayList<>(generated);
+            if (opts.stream().noneMatch(o -> o.equalsIgnoreCase(correct))) {
+                opts.add(correct);
+            }
+            opts = shuffleWithCorrect(correct, opts, nDistractors);
+            questions.add(Map.of("term", term, "correct", correct, "options", opts));
+        }
+        return questions;
+    }
+
+    private List<Map<String, Object>> toSentenceQuestions(List<Map<String, Object>> gen,
+            Map<String, Flashcard> byWord, int nOptions, Set<String> delivered) {
+        List<Map<String, Object>> questions = new ArrayList<>();
+        for (Map<String, Object> q : gen) {
+            String word = Objects.toString(q.get("word"), "");
+            @SuppressWarnings("unchecked")
+            List<String> sentences = (List<String>) q.getOrDefault("sentences", List.of());
+            Integer correctIdx = (Integer) q.getOrDefault("correct_index", 0);
+            if (!byWord.containsKey(word) || sentences == null || sentences.isEmpty() || !delivered.add(word))
+                continue;
+            if (sentences.size() > nOptions)
+                sentences = sentences.subList(0, nOptions);
+            questions.add(Map.of("word", word, "sentences", sentences, "correct_index", correctIdx));
+        }
+        return questions;
+    }
+
+    private static void emit(Consumer<List<Map<String, Object>>> sink, List<Map<String, Object>> questions) {
+        if (!questions.isEmpty())
+            sink.accept(questions);
+    }
+
+    private List<Map<String, Object>> generateAndCacheMcq(List<Map<String, String>> toGenerate,
+            Map<String, Flashcard> byTerm, int optionsCount, Consumer<List<Map<String, Object>>> onChunk) {
+        List<Map<String, Object>> gen = callModelServiceGenerate(toGenerate, optionsCount, onChunk);
+        Map<Long, List<String>> updates = new HashMap<>();
+        for (Map<String, Object> q : gen) {
+            @SuppressWarnings("unchecked")
+            List<String> opts = (List<String>) q.getOrDefault("options", List.of());
+            Flashcard card = byTerm.get(Objects.toString(q.get("term"), ""));
+            if (card != null && opts != null && !opts.isEmpty()) {
+                updates.put(card.getId(), List.copyOf(opts));
+            }
+        }
+        awaitWrite(optionsWriter.saveMcqOptions(updates), "MCQ");
+        return gen;
+    }
+
+    private List<Map<String, Object>> generateAndCacheSentences(List<Map<String, String>> toGenerate,
+            Map<String, Flashcard> byWord, int nOptions, Consumer<List<Map<String, Object>>> onChunk) {
+        List<Map<String, Object>> gen = callModelServiceGenerateSentences(toGenerate, nOptions, onChunk);
+        Map<Long, List<String>> updates = new HashMap<>();
+        for (Map<String, Object> q : gen) {
+            @SuppressWarnings("unchecked")
+            List<String> sentences = (List<String>) q.getOrDefault("sentences", List.of());
+            Flashcard card = byWord.get(Objects.toString(q.get("word"), ""));
+            if (card != null && sentences != null && !sentences.isEmpty()) {
+                updates.put(card.getId(), List.copyOf(sentences));
+            }
+        }
+        awaitWrite(optionsWriter.saveSentenceOptions(updates), "sentence");
+        return gen;
+    }
+
+    private static void awaitWrite(CompletableFuture<Void> write, String what) {
+        try {
+            write.join();
+        } catch (CompletionException e) {
+            // The generated questions are still good; the cards are just generated again next time
+            log.warn("{} option write-back failed: {}", what, String.valueOf(e.getCause()));
+        }
+    }
+
+    private List<String> shuffleWithCorrect(String correct, List<String> options, int nDistractors) {
+        List<String> pool = new ArrayList<>();
+        pool.add(correct);
+        for (String o : options) {
+            if (pool.size() >= nDistractors + 1)
+                break;
+            if (o.equalsIgnoreCase(correct))
+                continue;
+            pool.add(o);
+        }
+        Collections.shuffle(pool);
+        return pool;
+    }
+
+    private List<Map<String, Object>> callModelServiceGenerate(List<Map<String, String>> pairs, int optionsCount,
+            Consumer<List<Map<String, Object>>> onChunk) {
+        try {
+            return generationService.generateDistractorsChunked(pairs, optionsCount, onChunk);
+        } catch (Exception e) {
+            log.warn("Failed to call model service for multiple-choice: {}", e.toString());
+        }
+        return List.of();
+    }
+
+    private List<Map<String, Object>> callModelServiceGenerateSentences(List<Map<String, String>> words,
+            int optionsCount, Consumer<List<Map<String, Object>>> onChunk) {
+        try {
+            List<String> plainWords = words.stream().map(w -> w.getOrDefault("word", "")).toList();
+            return generationService.generateSentencesChunked(plainWords, optionsCount, onChunk);
+        } catch (Exception e) {
+            log.warn("Failed to call model service for sentence-choice: {}", e.toString());
+        }
+        return List.of();
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.backend.service;
+
+import com.example.backend.model.Flashcard;
+import com.example.backend.model.FlashcardSet;
+import com.example.backend.repository.FlashcardRepository;
+import com.example.backend.repository.FlashcardSetRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Builds multiple-choice distractors without the model service, from the
+ * definitions of other cards in the same set and folder. Candidates with the
+ * same part of speech ({@code Flashcard.type}) and from the same set are
+ * preferred; candidates that are near-duplicates of the answer (or of an
+ * already chosen option) are filtered out by a character-bigram similarity.
+ * <p>
+ * Only sibling sets with the same access as the played set are used, so a
+ * public game never shows definitions from the owner's private sets.
+ * <p>
+ * Candidate pools are computed once per set and cached for a short TTL. A
+ * pool also holds cards of sibling sets, so any card or set change in a folder
+ * (including an access change) drops the pools of every set in that folder.
+ */
+@Service
+public class LocalDistractorEngine {
+
+    private record Candidate(long cardId, boolean sameSet, String type, String text, int[] bigrams) {
+    }
+
+    /** Precomputed distractor candidates for one set. */
+    public static final class Pool {
+        private final List<Candidate> candidates;
+        private final Long folderId;
+        private final long builtAt = System.currentTimeMillis();
+
+        private Pool(List<Candidate> candidates, Long folderId) {
+            this.candidates = candidates;
+            this.folderId = folderId;
+        }
+
+        public int size() {
+            return candidates.size();
+        }
+    }
+
+    private final FlashcardRepository cardRepo;
+    private final FlashcardSetRepository setRepo;
+    private final boolean enabled;
+    private final double maxSimilarity;
+    private final int maxPoolSize;
+    private final long poolTtlMs;
+    private final int maxPools;
+    private final Map<Long, Pool> pools = new ConcurrentHashMap<>();
+
+    public LocalDistractorEngine(FlashcardRepository cardRepo, FlashcardSetRepository setRepo,
+            @Value("${game.local-distractors.enabled:true}") boolean enabled,
+            @Value("${game.local-distractors.max-similarity:0.8}") double maxSimilarity,
+            @Value("${game.local-distractors.max-pool-size:500}") int maxPoolSize,
+            @Value("${game.local-distractors.pool-ttl-ms:600000}") long poolTtlMs,
+            @Value("${game.local-distractors.max-pools:1000}") int maxPools) {
+        this.cardRepo = cardRepo;
+        this.setRepo = setRepo;
+        this.enabled = enabled;
+        this.maxSimilarity = maxSimilarity;
+        this.maxPoolSize = maxPoolSize;
+        this.poolTtlMs = poolTtlMs;
+        this.maxPools = maxPools;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** The candidate pool for a set, built on first use and cached. */
+    public Pool poolFor(Long setId) {
+        Pool pool = pools.get(setId);
+        if (pool != null && System.currentTimeMillis() - pool.builtAt <= poolTtlMs)
+            return pool;
+        pool = buildPool(setId);
+        if (pools.size() >= maxPools)
+            pools.clear();
+        pools.put(setId, pool);
+        return pool;
+    }
+
+    /**
+     * Drops the cached pools that may contain cards of {@code setId}: its own
+     * and those of every other set in the same folder. Call before deleting a
+     * set or moving it, while its folder can still be looked up.
+     */
+    public void invalidate(Long setId) {
+        if (setId == null)
+            return;
+        Pool removed = pools.remove(setId);
+        Long folderId = removed != null ? removed.folderId : folderOf(setId);
+        if (folderId != null)
+            pools.values().removeIf(p -> folderId.equals(p.folderId));
+    }
+
+    /**
+     * Picks {@code count} distractors for a card's definition, or returns null
+     * when the pool cannot supply that many distinct ones.
+     */
+    public List<String> distractors(Pool pool, Flashcard card, String correct, int count) {
+        int[] answer = bigrams(normalize(correct));
+        String type = normalizeType(card.getType());
+        long cardId = card.getId() == null ? -1 : card.getId();
+
+        // Tiers: same type + same set, same type in folder, same set, rest of folder
+        List<List<Candidate>> tiers = List.of(new ArrayList<>(), new ArrayList<>(), new ArrayList<>(),
+                new ArrayList<>());
+        for (Candidate c : pool.candidates) {
+            if (c.cardId() == cardId)
+                continue;
+            boolean sameType = type != null && type.equals(c.type());
+            tiers.get(sameType ? (c.sameSet() ? 0 : 1) : (c.sameSet() ? 2 : 3)).add(c);
+        }
+
+        List<String> picked = new ArrayList<>(count);
+        List<int[]> pickedBigrams = new ArrayList<>(count + 1);
+        pickedBigrams.add(answer);
+        for (List<Candidate> tier : tiers) {
+            Collections.shuffle(tier);
+            for (Candidate c : tier) {
+                if (picked.size() >= count)
+                    return picked;
+                if (c.text().equalsIgnoreCase(correct) || tooSimilar(c.bigrams(), pickedBigrams))
+                    continue;
+                picked.add(c.text());
+                pickedBigrams.add(c.bigrams());
+            }
+        }
+        return picked.size() >= count ? picked : null;
+    }
+
+    private Pool buildPool(Long setId) {
+        FlashcardSet set = setRepo.findById(setId).orElse(null);
+        Long folderId = set == null || set.getFolder() == null ? null : set.getFolder().getId();
+        // Own set first; fill the rest of the budget from sibling sets of the same access
+        List<Candidate> candidates = new ArrayList<>();
+        addCandidates(candidates, cardRepo.findBySetId(setId), true);
+        if (folderId != null && set.getAccess() != null && candidates.size() < maxPoolSize) {
+            List<Flashcard> siblings = cardRepo.findBySetFolderIdAndSetAccessAndSetIdNot(folderId,
+                    set.getAccess(), setId, PageRequest.of(0, maxPoolSize - candidates.size()));
+            addCandidates(candidates, siblings, false);
+        }
+        return new Pool(List.copyOf(candidates), folderId);
+    }
+
+    private void addCandidates(List<Candidate> out, List<Flashcard> cards, boolean sameSet) {
+        for (Flashcard c : cards) {
+            if (out.size() >= maxPoolSize)
+                return;
+            String text = Objects.toString(c.getDefinition(), "").trim();
+            if (text.isEmpty())
+                continue;
+            out.add(new Candidate(c.getId(), sameSet, normalizeType(c.getType()), text, bigrams(normalize(text))));
+        }
+    }
+
+    private Long folderOf(Long setId) {
+        return setRepo.findById(setId).map(FlashcardSet::getFolder).map(f -> f.getId()).orElse(null);
+    }
+
+    private boolean tooSimilar(int[] candidate, List<int[]> chosen) {
+        for (int[] other : chosen) {
+            if (dice(candidate, other) >= maxSimilarity)
+                return true;
+        }
+        return false;
+    }
+
+    /** Dice coefficient of two sorted, de-duplicated bigram arrays. */
+    static double dice(int[] a, int[] b) {
+        if (a.length == 0 && b.length == 0)
+            return 1.0;
+        int i = 0, j = 0, common = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                common++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return 2.0 * common / (a.length + b.length);
+    }
+
+    static int[] bigrams(String s) {
+        if (s.length() < 2)
+            return s.isEmpty() ? new int[0] : new int[] { s.charAt(0) };
+        int[] out = new int[s.length() - 1];
+        for (int i = 0; i < out.length; i++) {
+            out[i] = (s.charAt(i) << 16) | s.charAt(i + 1);
+        }
+        Arrays.sort(out);
+        int n = 0;
+        for (int i = 0; i < out.length; i++) {
+            if (i == 0 || out[i] != out[n - 1])
+                out[n++] = out[i];
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private static String normalize(String s) {
+        return s.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+    }
+
+    private static String normalizeType(String type) {
+        if (type == null || type.isBlank())
+            return null;
+        return type.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,266 @@
+package com.example.backend.service;
+
+import com.example.backend.exception.ModelServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Single HTTP client for every call to the Python model service. Connections
+ * are pooled and kept alive across requests; each endpoint gets its own
+ * response timeout since /classify and the Gemini-backed generators have very
+ * different latency profiles.
+ * <p>
+ * Every call passes a shared circuit breaker and a per-endpoint bulkhead
+ * (a cap on concurrent calls). When either refuses, a
+ * {@link ModelServiceUnavailableException} is thrown immediately so callers
+ * can fall back instead of tying up request threads on a struggling service.
+ * Client errors (4xx) count as successes for the breaker.
+ */
+@Component
+public class ModelServiceClient {
+
+    public static final String WORD_INFO = "/word-info";
+    public static final String FLASHCARDS = "/flashcards";
+    public static final String CLASSIFY = "/classify";
+    public static final String GENERATE_DISTRACTORS = "/generate-distractors";
+    public static final String GENERATE_SENTENCES = "/generate-sentences";
+
+    private final String baseUrl;
+    // Path prefix of baseUrl (e.g. behind a reverse proxy), stripped to find the endpoint
+    private final String basePath;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
+    private final RestTemplate rest;
+    private final Map<String, RequestConfig> requestConfigs = new HashMap<>();
+    private final RequestConfig defaultRequestConfig;
+    private final CircuitBreaker breaker;
+    private final Map<String, Semaphore> bulkheads = new HashMap<>();
+    private final long bulkheadWaitMs;
+    private final MeterRegistry registry;
+
+    public ModelServiceClient(
+            @Value("${model.service.base-url:http://localhost:5000}") String baseUrl,
+            @Value("${model.service.pool.max-total:50}") int maxTotal,
+            @Value("${model.service.pool.max-per-route:20}") int maxPerRoute,
+            @Value("${model.service.connect-timeout-ms:2000}") long connectTimeoutMs,
+            @Value("${model.service.pool.acquire-timeout-ms:2000}") long acquireTimeoutMs,
+            @Value("${model.service.keep-alive-ms:30000}") long keepAliveMs,
+            @Value("${model.service.timeout.default-ms:10000}") long defaultTimeoutMs,
+            @Value("${model.service.timeout.word-info-ms:10000}") long wordInfoTimeoutMs,
+            @Value("${model.service.timeout.flashcards-ms:15000}") long flashcardsTimeoutMs,
+            @Value("${model.service.timeout.classify-ms:5000}") long classifyTimeoutMs,
+            @Value("${model.service.timeout.generate-ms:30000}") long generateTimeoutMs,
+            @Value("${model.service.breaker.window-size:20}") int breakerWindow,
+            @Value("${model.service.breaker.min-calls:10}") int breakerMinCalls,
+            @Value("${model.service.breaker.failure-rate:0.5}") double breakerFailureRate,
+            @Value("${model.service.breaker.open-ms:30000}") long breakerOpenMs,
+            @Value("${model.service.breaker.half-open-calls:3}") int breakerHalfOpenCalls,
+            @Value("${model.service.bulkhead.max-wait-ms:50}") long bulkheadWaitMs,
+            @Value("${model.service.bulkhead.word-info:10}") int wordInfoConcurrency,
+            @Value("${model.service.bulkhead.flashcards:8}") int flashcardsConcurrency,
+            @Value("${model.service.bulkhead.classify:8}") int classifyConcurrency,
+            @Value("${model.service.bulkhead.generate:8}") int generateConcurrency,
+            MeterRegistry registry) {
+        this.baseUrl = baseUrl;
+        this.basePath = basePath(baseUrl);
+        this.registry = registry;
+        this.bulkheadWaitMs = bulkheadWaitMs;
+
+        this.breaker = new CircuitBreaker(breakerWindow, breakerMinCalls, breakerFailureRate, breakerOpenMs,
+                breakerHalfOpenCalls, (from, to) -> Counter.builder("model.circuit.transitions")
+                        .description("Model-service circuit breaker state changes")
+                        .tag("from", from.name().toLowerCase())
+                        .tag("to", to.name().toLowerCase())
+                        .register(registry)
+                        .increment());
+        Gauge.builder("model.circuit.state", breaker, b -> b.getState().ordinal())
+                .description("Model-service circuit breaker state (0 closed, 1 half-open, 2 open)")
+                .register(registry);
+
+        bulkhead(WORD_INFO, wordInfoConcurrency);
+        bulkhead(FLASHCARDS, flashcardsConcurrency);
+        bulkhead(CLASSIFY, classifyConcurrency);
+        // the two generators share Gemini quota, so they share one bulkhead
+        Semaphore generate = new Semaphore(Math.max(1, generateConcurrency));
+        bulkheads.put(GENERATE_DISTRACTORS, generate);
+        bulkheads.put(GENERATE_SENTENCES, generate);
+        Gauge.builder("model.bulkhead.available", generate, Semaphore::availablePermits)
+                .tag("endpoint", "/generate")
+                .description("Free concurrent-call slots per model-service endpoint")
+                .register(registry);
+
+        ConnectionConfig connectionConfig = ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                .setTimeToLive(TimeValue.ofMinutes(5))
+                .setValidateAfterInactivity(TimeValue.ofSeconds(10))
+                .build();
+        this.connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(connectionConfig)
+                .build();
+
+        this.defaultRequestConfig = requestConfig(acquireTimeoutMs, defaultTimeoutMs);
+        requestConfigs.put(WORD_INFO, requestConfig(acquireTimeoutMs, wordInfoTimeoutMs));
+        requestConfigs.put(FLASHCARDS, requestConfig(acquireTimeoutMs, flashcardsTimeoutMs));
+        requestConfigs.put(CLASSIFY, requestConfig(acquireTimeoutMs, classifyTimeoutMs));
+        requestConfigs.put(GENERATE_DISTRACTORS, requestConfig(acquireTimeoutMs, generateTimeoutMs));
+        requestConfigs.put(GENERATE_SENTENCES, requestConfig(acquireTimeoutMs, generateTimeoutMs));
+
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(defaultRequestConfig)
+                .setKeepAliveStrategy((response, context) -> TimeValue.ofMilliseconds(keepAliveMs))
+                .evictIdleConnections(TimeValue.ofSeconds(30))
+                .build();
+
+        HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory(httpClient) {
+            @Override
+            protected HttpContext createHttpContext(HttpMethod httpMethod, URI uri) {
+                // Pick the per-endpoint timeouts by endpoint, i.e. the path below baseUrl
+                HttpClientContext context = HttpClientContext.create();
+                context.setRequestConfig(requestConfigs.getOrDefault(endpointOf(uri), defaultRequestConfig));
+                return context;
+            }
+        };
+        this.rest = new RestTemplate(factory);
+    }
+
+    private static String basePath(String baseUrl) {
+        String path = URI.create(baseUrl).getPath();
+        if (path == null)
+            return "";
+        return path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+    }
+
+    String endpointOf(URI uri) {
+        String path = uri.getPath();
+        if (path == null)
+            return "";
+        return !basePath.isEmpty() && path.startsWith(basePath) ? path.substring(basePath.length()) : path;
+    }
+
+    private void bulkhead(String endpoint, int concurrency) {
+        Semaphore semaphore = new Semaphore(Math.max(1, concurrency));
+        bulkheads.put(endpoint, semaphore);
+        Gauge.builder("model.bulkhead.available", semaphore, Semaphore::availablePermits)
+                .tag("endpoint", endpoint)
+                .description("Free concurrent-call slots per model-service endpoint")
+                .register(registry);
+    }
+
+    private static RequestConfig requestConfig(long acquireTimeoutMs, long responseTimeoutMs) {
+        return RequestConfig.custom()
+                .setConnectionRequestTimeout(acquireTimeoutMs, TimeUnit.MILLISECONDS)
+                .setResponseTimeout(responseTimeoutMs, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    /**
+     * POST a JSON body to a model-service endpoint and return the decoded JSON object.
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> postJson(String endpoint, Object body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return call(endpoint, () -> rest.postForObject(baseUrl + endpoint, new HttpEntity<>(body, headers), Map.class));
+    }
+
+    /**
+     * POST a form-encoded body to a model-service endpoint and return the decoded JSON object.
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> postForm(String endpoint, MultiValueMap<String, String> form) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+        return call(endpoint, () -> rest.postForObject(baseUrl + endpoint, new HttpEntity<>(form, headers), Map.class));
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return breaker.getState();
+    }
+
+    @SuppressWarnings("rawtypes")
+    private Map call(String endpoint, Supplier<Map> request) {
+        Semaphore bulkhead = bulkheads.get(endpoint);
+        boolean acquired = false;
+        try {
+            if (bulkhead != null) {
+                acquired = bulkhead.tryAcquire(bulkheadWaitMs, TimeUnit.MILLISECONDS);
+                if (!acquired) {
+                    rejected(endpoint, "bulkhead_full");
+                    throw new ModelServiceUnavailableException("Too many concurrent calls to " + endpoint);
+                }
+            }
+            CircuitBreaker.Permit permit = breaker.tryAcquire();
+            if (permit == null) {
+                rejected(endpoint, "circuit_open");
+                throw new ModelServiceUnavailableException("Model service circuit is open");
+            }
+            // Reported from finally so errors (not just exceptions) release the permit as failures
+            boolean success = false;
+            try {
+                Map result = request.get();
+                success = true;
+                return result;
+            } catch (HttpClientErrorException e) {
+                // the service answered; the request itself was bad
+                success = true;
+                throw e;
+            } finally {
+                permit.complete(success);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ModelServiceUnavailableException("Interrupted waiting for " + endpoint);
+        } finally {
+            if (acquired)
+                bulkhead.release();
+        }
+    }
+
+    private void rejected(String endpoint, String reason) {
+        Counter.builder("model.calls.rejected")
+                .description("Model-service calls refused without being sent")
+                .tag("endpoint", endpoint)
+                .tag("reason", reason)
+                .register(registry)
+                .increment();
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        httpClient.close();
+        connectionManager.close();
+    }
+}
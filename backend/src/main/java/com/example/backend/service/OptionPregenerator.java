@@ -0,0 +1,342 @@
+package com.example.backend.service;
+
+import com.example.backend.model.Flashcard;
+import com.example.backend.repository.FlashcardRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Background pipeline that fills {@code mcqOptions} / {@code sentenceOptions}
+ * for newly created cards so game endpoints can serve from the cached columns
+ * instead of waiting on the model service.
+ * <p>
+ * Card ids go into a bounded queue; a dispatcher thread drains them into
+ * batches and hands each batch to {@code pregenExecutor}. Model calls are
+ * spaced by a shared rate limit and retried with exponential backoff. Cards
+ * that already have options (e.g. generated by a game request first) are
+ * skipped.
+ * <p>
+ * Each model call only carries cards of one set: the model service fills
+ * missing distractors from the other definitions in the same request, so
+ * mixing sets could leak one user's (possibly private) cards into another's.
+ */
+@Service
+public class OptionPregenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(OptionPregenerator.class);
+
+    private record Pending(long cardId, long enqueuedAt) {
+    }
+
+    private final FlashcardRepository flashcardRepository;
+    private final GameGenerationService generationService;
+    private final GameOptionsWriter optionsWriter;
+    private final ThreadPoolTaskExecutor executor;
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final long batchWaitMs;
+    private final long minIntervalNanos;
+    private final int maxAttempts;
+    private final long backoffMs;
+    private final int optionsCount;
+
+    private final BlockingQueue<Pending> queue;
+    // ids currently queued or being processed, so repeat requests don't pile up
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private final Counter generated;
+    private final Counter failed;
+    private final Counter dropped;
+    private final Timer lag;
+
+    private volatile boolean running;
+    private Thread dispatcher;
+    private long nextCallAt;
+
+    // Coverage ratios for the gauges; refreshed by refreshCoverage(), never on the scrape thread
+    private volatile double mcqCoverage;
+    private volatile double sentenceCoverage;
+
+    public OptionPregenerator(FlashcardRepository flashcardRepository, GameGenerationService generationService,
+            GameOptionsWriter optionsWriter, @Qualifier("pregenExecutor") ThreadPoolTaskExecutor executor,
+            MeterRegistry registry,
+            @Value("${pregen.enabled:true}") boolean enabled,
+            @Value("${pregen.queue-capacity:10000}") int queueCapacity,
+            @Value("${pregen.batch-size:20}") int batchSize,
+            @Value("${pregen.batch-wait-ms:500}") long batchWaitMs,
+            @Value("${pregen.rate-per-second:2}") double ratePerSecond,
+            @Value("${pregen.max-attempts:3}") int maxAttempts,
+            @Value("${pregen.backoff-ms:1000}") long backoffMs,
+            @Value("${pregen.options-count:4}") int optionsCount) {
+        this.flashcardRepository = flashcardRepository;
+        this.generationService = generationService;
+        this.optionsWriter = optionsWriter;
+        this.executor = executor;
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.batchWaitMs = batchWaitMs;
+        this.minIntervalNanos = ratePerSecond > 0 ? (long) (1_000_000_000L / ratePerSecond) : 0;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffMs = backoffMs;
+        this.optionsCount = optionsCount;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+
+        this.generated = Counter.builder("pregen.cards.generated")
+                .description("Cards whose game options were filled by pre-generation")
+                .register(registry);
+        this.failed = Counter.builder("pregen.batches.failed")
+                .description("Model-service calls that failed after all retries")
+                .register(registry);
+        this.dropped = Counter.builder("pregen.cards.dropped")
+                .description("Cards not enqueued because the pre-generation queue was full")
+                .register(registry);
+        this.lag = Timer.builder("pregen.lag")
+                .description("Time from enqueue until a card's batch was processed")
+                .register(registry);
+        Gauge.builder("pregen.queue.size", queue, BlockingQueue::size)
+                .description("Cards waiting for pre-generation")
+                .register(registry);
+        Gauge.builder("pregen.queue.lag.ms", this, OptionPregenerator::oldestPendingAgeMs)
+                .description("Age of the oldest card still waiting in the queue")
+                .register(registry);
+        Gauge.builder("pregen.coverage.mcq", this, p -> p.mcqCoverage)
+                .description("Fraction of cards with cached MCQ options")
+                .register(registry);
+        Gauge.builder("pregen.coverage.sentences", this, p -> p.sentenceCoverage)
+                .description("Fraction of cards with cached example sentences")
+                .register(registry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled)
+            return;
+        running = true;
+        dispatcher = new Thread(this::dispatchLoop, "pregen-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (dispatcher != null)
+            dispatcher.interrupt();
+    }
+
+    /**
+     * Schedules a card for option pre-generation. Never blocks; when the queue
+     * is full the card is dropped and will be generated lazily by the game
+     * endpoint instead.
+     */
+    public void enqueue(Long cardId) {
+        if (!enabled || cardId == null || !pending.add(cardId))
+            return;
+        if (!queue.offer(new Pending(cardId, System.currentTimeMillis()))) {
+            pending.remove(cardId);
+            dropped.increment();
+        }
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                Pending first = queue.take();
+                List<Pending> batch = new ArrayList<>(batchSize);
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(batchWaitMs);
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0)
+                        break;
+                    Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null)
+                        break;
+                    batch.add(next);
+                }
+                // CallerRunsPolicy on the pool: when workers are busy the dispatcher
+                // processes the batch itself, which stops it from draining further.
+                executor.execute(() -> processBatch(batch));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.warn("Pre-generation dispatch failed: {}", e.toString());
+            }
+        }
+    }
+
+    private void processBatch(List<Pending> batch) {
+        try {
+            List<Long> ids = batch.stream().map(Pending::cardId).toList();
+            Map<Long, List<Flashcard>> bySet = new HashMap<>();
+            for (Flashcard c : flashcardRepository.findAllById(ids)) {
+                if (c.getSet() != null)
+                    bySet.computeIfAbsent(c.getSet().getId(), k -> new ArrayList<>()).add(c);
+            }
+            for (List<Flashcard> cards : bySet.values()) {
+                processSet(cards);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("Pre-generation batch of {} cards failed: {}", batch.size(), e.toString());
+        } finally {
+            long now = System.currentTimeMillis();
+            for (Pending p : batch) {
+                pending.remove(p.cardId());
+                lag.record(now - p.enqueuedAt(), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /** Generates missing options for cards that all belong to one set. */
+    private void processSet(List<Flashcard> cards) throws InterruptedException {
+        try {
+            Map<String, List<Flashcard>> needMcq = new HashMap<>();
+            Map<String, List<Flashcard>> needSentences = new HashMap<>();
+            List<Map<String, String>> pairs = new ArrayList<>();
+            for (Flashcard c : cards) {
+                String word = Objects.toString(c.getWord(), "").trim();
+                if (word.isEmpty())
+                    continue;
+                if (isEmpty(c.getMcqOptions())) {
+                    if (!needMcq.containsKey(word)) {
+                        pairs.add(Map.of("term", word, "definition", Objects.toString(c.getDefinition(), "").trim()));
+                    }
+                    needMcq.computeIfAbsent(word, k -> new ArrayList<>()).add(c);
+                }
+                if (isEmpty(c.getSentenceOptions())) {
+                    needSentences.computeIfAbsent(word, k -> new ArrayList<>()).add(c);
+                }
+            }
+
+            if (!pairs.isEmpty()) {
+                List<Map<String, Object>> gen = withRetry("generate-distractors",
+                        () -> generationService.generateDistractors(pairs, optionsCount));
+                Map<Long, List<String>> updates = collect(gen, "term", "options", needMcq);
+                optionsWriter.saveMcqOptions(updates);
+                generated.increment(updates.size());
+            }
+            if (!needSentences.isEmpty()) {
+                List<String> words = new ArrayList<>(needSentences.keySet());
+                List<Map<String, Object>> gen = withRetry("generate-sentences",
+                        () -> generationService.generateSentences(words, optionsCount));
+                Map<Long, List<String>> updates = collect(gen, "word", "sentences", needSentences);
+                optionsWriter.saveSentenceOptions(updates);
+                generated.increment(updates.size());
+            }
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            // one set failing should not cost the rest of the batch
+            log.warn("Pre-generation for set {} failed: {}", cards.get(0).getSet().getId(), e.toString());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<Long, List<String>> collect(List<Map<String, Object>> questions, String keyField, String listField,
+            Map<String, List<Flashcard>> byWord) {
+        Map<Long, List<String>> updates = new HashMap<>();
+        for (Map<String, Object> q : questions) {
+            String key = Objects.toString(q.get(keyField), "");
+            Object list = q.get(listField);
+            List<Flashcard> targets = byWord.get(key);
+            if (targets == null || !(list instanceof List<?> values) || values.isEmpty())
+                continue;
+            List<String> options = List.copyOf((List<String>) values);
+            for (Flashcard c : targets) {
+                updates.put(c.getId(), options);
+            }
+        }
+        return updates;
+    }
+
+    /**
+     * Runs a model call under the shared rate limit, retrying with exponential
+     * backoff. Returns an empty list once all attempts are exhausted.
+     */
+    private List<Map<String, Object>> withRetry(String what, Supplier<List<Map<String, Object>>> call)
+            throws InterruptedException {
+        long delay = backoffMs;
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            acquireSlot();
+            try {
+                return call.get();
+            } catch (Exception e) {
+                if (attempt == maxAttempts) {
+                    failed.increment();
+                    log.warn("Pre-generation {} failed after {} attempts: {}", what, attempt, e.toString());
+                    break;
+                }
+                log.debug("Pre-generation {} attempt {} failed, retrying in {} ms: {}", what, attempt, delay,
+                        e.toString());
+                Thread.sleep(delay);
+                delay *= 2;
+            }
+        }
+        return List.of();
+    }
+
+    /** Blocks until the next model call is allowed by {@code pregen.rate-per-second}. */
+    private void acquireSlot() throws InterruptedException {
+        if (minIntervalNanos <= 0)
+            return;
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long slot = Math.max(now, nextCallAt);
+            nextCallAt = slot + minIntervalNanos;
+            waitNanos = slot - now;
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    private double oldestPendingAgeMs() {
+        Pending head = queue.peek();
+        return head == null ? 0 : System.currentTimeMillis() - head.enqueuedAt();
+    }
+
+    /** Recomputes the coverage gauges; the count queries run here, not on metrics scrapes. */
+    @Scheduled(initialDelayString = "${pregen.coverage-refresh-ms:60000}",
+            fixedDelayString = "${pregen.coverage-refresh-ms:60000}")
+    void refreshCoverage() {
+        try {
+            long total = flashcardRepository.count();
+            mcqCoverage = total == 0 ? 1.0 : (double) flashcardRepository.countByMcqOptionsIsNotNull() / total;
+            sentenceCoverage = total == 0 ? 1.0
+                    : (double) flashcardRepository.countBySentenceOptionsIsNotNull() / total;
+        } catch (Exception e) {
+            log.debug("Coverage refresh failed: {}", e.toString());
+        }
+    }
+
+    private static boolean isEmpty(List<String> options) {
+        return options == null || options.isEmpty();
+    }
+}
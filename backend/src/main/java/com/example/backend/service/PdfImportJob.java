@@ -0,0 +1,159 @@
+package com.example.backend.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * State of one asynchronous PDF import. Progress is pushed to any SSE
+ * subscribers and kept on the job for polling clients.
+ * <p>
+ * State changes and subscriptions are decided under the job's lock, so a
+ * subscriber that arrives while the job finishes gets the terminal event
+ * exactly once: either with the other subscribers or on subscription.
+ * Events themselves are sent outside the lock from a snapshot of the
+ * subscribers.
+ */
+public class PdfImportJob {
+
+    public static final String QUEUED = "queued";
+    public static final String DONE = "done";
+    public static final String FAILED = "failed";
+
+    private final String id;
+    private final String contentHash;
+    private final long createdAt = System.currentTimeMillis();
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+
+    private volatile String status = QUEUED;
+    private volatile Map<String, Object> result;
+    private volatile String error;
+    private volatile long finishedAt;
+
+    public PdfImportJob(String id, String contentHash) {
+        this.id = id;
+        this.contentHash = contentHash;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public Map<String, Object> getResult() {
+        return result;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public long getFinishedAt() {
+        return finishedAt;
+    }
+
+    public boolean isFinished() {
+        return DONE.equals(status) || FAILED.equals(status);
+    }
+
+    public Map<String, Object> toView() {
+        Map<String, Object> view = new HashMap<>();
+        view.put("jobId", id);
+        view.put("status", status);
+        if (result != null)
+            view.put("result", result);
+        if (error != null)
+            view.put("error", error);
+        return view;
+    }
+
+    public void addEmitter(SseEmitter emitter) {
+        String event;
+        Map<String, Object> view;
+        synchronized (this) {
+            // The job may have finished between lookup and subscription
+            if (!isFinished()) {
+                emitters.add(emitter);
+                emitter.onCompletion(() -> emitters.remove(emitter));
+                emitter.onTimeout(() -> emitters.remove(emitter));
+                emitter.onError(e -> emitters.remove(emitter));
+                return;
+            }
+            event = status;
+            view = toView();
+        }
+        send(List.of(emitter), event, true, view);
+    }
+
+    void stage(String stage) {
+        List<SseEmitter> targets;
+        Map<String, Object> view;
+        synchronized (this) {
+            this.status = stage;
+            view = toView();
+            targets = List.copyOf(emitters);
+        }
+        send(targets, "progress", false, view);
+    }
+
+    void complete(Map<String, Object> result) {
+        List<SseEmitter> targets;
+        Map<String, Object> view;
+        synchronized (this) {
+            this.result = result;
+            this.finishedAt = System.currentTimeMillis();
+            this.status = DONE;
+            view = toView();
+            targets = takeEmitters();
+        }
+        send(targets, DONE, true, view);
+    }
+
+    void fail(String error) {
+        List<SseEmitter> targets;
+        Map<String, Object> view;
+        synchronized (this) {
+            this.error = error;
+            this.finishedAt = System.currentTimeMillis();
+            this.status = FAILED;
+            view = toView();
+            targets = takeEmitters();
+        }
+        send(targets, FAILED, true, view);
+    }
+
+    // Caller holds the lock. Once finished, every emitter belongs to exactly one sender.
+    private List<SseEmitter> takeEmitters() {
+        List<SseEmitter> taken = List.copyOf(emitters);
+        emitters.clear();
+        return taken;
+    }
+
+    // Never called with the lock held: a slow client must not stall the import worker
+    private void send(List<SseEmitter> targets, String event, boolean finished, Map<String, Object> view) {
+        for (SseEmitter emitter : targets) {
+            try {
+                emitter.send(SseEmitter.event().name(event).data(view));
+                if (finished)
+                    emitter.complete();
+            } catch (Exception e) {
+                emitters.remove(emitter);
+                emitter.completeWithError(e);
+            }
+        }
+    }
+}
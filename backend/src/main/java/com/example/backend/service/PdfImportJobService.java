@@ -0,0 +1,106 @@
+package com.example.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs PDF imports off the servlet thread on a bounded worker pool and keeps
+ * job state for polling / SSE. Finished jobs are dropped after a retention
+ * window.
+ */
+@Service
+public class PdfImportJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(PdfImportJobService.class);
+
+    private final PdfImportService importService;
+    private final PdfTextExtractor extractor;
+    private final Executor jobExecutor;
+    private final long retentionMs;
+    private final Map<String, PdfImportJob> jobs = new ConcurrentHashMap<>();
+
+    public PdfImportJobService(PdfImportService importService, PdfTextExtractor extractor,
+            @Qualifier("pdfJobExecutor") Executor jobExecutor,
+            @Value("${pdf.jobs.retention-ms:900000}") long retentionMs) {
+        this.importService = importService;
+        this.extractor = extractor;
+        this.jobExecutor = jobExecutor;
+        this.retentionMs = retentionMs;
+    }
+
+    /**
+     * Register a job and queue it. Cached documents complete immediately.
+     * The upload is spooled to a temp file (hashed on the way) so queued jobs
+     * don't hold documents on heap; the worker deletes the file when done.
+     *
+     * @throws RejectedExecutionException when the worker pool is saturated
+     */
+    public PdfImportJob submit(InputStream upload) throws IOException {
+        evictExpired();
+        MessageDigest digest = PdfImportService.newDigest();
+        Path pdf = extractor.spool(new DigestInputStream(upload, digest));
+        String hash = HexFormat.of().formatHex(digest.digest());
+        PdfImportJob job = new PdfImportJob(UUID.randomUUID().toString(), hash);
+        Map<String, Object> cached = importService.findCached(hash);
+        if (cached != null) {
+            delete(pdf);
+            job.complete(cached);
+            jobs.put(job.getId(), job);
+            return job;
+        }
+
+        jobs.put(job.getId(), job);
+        try {
+            jobExecutor.execute(() -> run(job, pdf));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            delete(pdf);
+            throw e;
+        }
+        return job;
+    }
+
+    public PdfImportJob find(String id) {
+        return jobs.get(id);
+    }
+
+    private void run(PdfImportJob job, Path pdf) {
+        try {
+            job.complete(importService.process(pdf, job.getContentHash(), job::stage));
+        } catch (Exception e) {
+            log.warn("PDF import job {} failed: {}", job.getId(), e.toString());
+            job.fail("Error processing PDF: " + e.getMessage());
+        } finally {
+            delete(pdf);
+        }
+    }
+
+    private static void delete(Path pdf) {
+        try {
+            Files.deleteIfExists(pdf);
+        } catch (IOException e) {
+            log.warn("Could not delete spooled PDF {}: {}", pdf, e.toString());
+        }
+    }
+
+    private void evictExpired() {
+        long cutoff = System.currentTimeMillis() - retentionMs;
+        jobs.values().removeIf(j -> j.isFinished() && j.getFinishedAt() < cutoff);
+    }
+}
@@ -0,0 +1,239 @@
+package com.example.backend.service;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * PDF import pipeline: extract text, then classify + generate flashcards on the
+ * model service. Shared by the blocking upload endpoint and async import jobs.
+ * Successful results are cached by the SHA-256 of the uploaded bytes so a
+ * re-upload of the same document skips all of it.
+ */
+@Service
+public class PdfImportService {
+
+    public static final String STAGE_EXTRACTING = "extracting";
+    public static final String STAGE_MODEL = "calling_model";
+
+    private static final String CACHE_TEXT = "text";
+    private static final String CACHE_FULL = "full";
+
+    private static final int MODEL_MAX_CHARS = 10000;
+    private static final int MODEL_MAX_WORDS = 1000;
+
+    private final ModelServiceClient modelService;
+    private final PdfTextExtractor extractor;
+    private final Executor modelExecutor;
+    private final long deadlineMs;
+    private final int maxExtractChars;
+    private final int maxExtractWords;
+    private final PdfResultCache cache;
+
+    public PdfImportService(ModelServiceClient modelService, PdfTextExtractor extractor,
+            @Qualifier("modelServiceExecutor") Executor modelExecutor,
+            @Value("${pdf.model.deadline-ms:8000}") long deadlineMs,
+            @Value("${pdf.extract.max-chars:50000}") int maxExtractChars,
+            @Value("${pdf.extract.max-words:10000}") int maxExtractWords,
+            PdfResultCache cache) {
+        this.modelService = modelService;
+        this.extractor = extractor;
+        this.modelExecutor = modelExecutor;
+        this.deadlineMs = deadlineMs;
+        this.maxExtractChars = maxExtractChars;
+        this.maxExtractWords = maxExtractWords;
+        this.cache = cache;
+    }
+
+    public static String sha256(byte[] bytes) {
+        return HexFormat.of().formatHex(newDigest().digest(bytes));
+    }
+
+    /** Content-hash digest, for callers that hash while streaming. */
+    public static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public Map<String, Object> findCached(String hash) {
+        return cache.get(CACHE_FULL, hash);
+    }
+
+    public Map<String, Object> process(byte[] pdf) throws IOException {
+        return process(pdf, sha256(pdf), stage -> {
+        });
+    }
+
+    /**
+     * Run the full pipeline, reporting each stage to {@code progress}.
+     */
+    public Map<String, Object> process(byte[] pdf, String hash, Consumer<String> progress) throws IOException {
+        return process(hash, progress,
+                () -> extractor.extract(new ByteArrayInputStream(pdf), maxExtractChars, maxExtractWords));
+    }
+
+    /**
+     * Same as {@link #process(byte[], String, Consumer)} for a document already
+     * spooled to disk. The caller owns (and deletes) the file.
+     */
+    public Map<String, Object> process(Path pdf, String hash, Consumer<String> progress) throws IOException {
+        return process(hash, progress, () -> extractor.extract(pdf, maxExtractChars, maxExtractWords));
+    }
+
+    @FunctionalInterface
+    private interface Extraction {
+        PdfTextExtractor.Result run() throws IOException;
+    }
+
+    private Map<String, Object> process(String hash, Consumer<String> progress, Extraction extraction)
+            throws IOException {
+        Map<String, Object> cached = cache.get(CACHE_FULL, hash);
+        if (cached != null)
+            return cached;
+
+        // Extraction is cached on its own so a model-service failure doesn't cost a re-parse
+        Map<String, Object> resp = cache.get(CACHE_TEXT, hash);
+        if (resp == null) {
+            progress.accept(STAGE_EXTRACTING);
+            PdfTextExtractor.Result extracted = extraction.run();
+            String text = extracted.text();
+
+            resp = new HashMap<>();
+            resp.put("rawText", text);
+            resp.put("wordCountEstimate", text == null ? 0 : text.split("\\s+").length);
+            resp.put("pageCount", extracted.pageCount());
+            resp.put("pagesRead", extracted.pagesRead());
+            resp.put("truncated", extracted.truncated());
+            cache.put(CACHE_TEXT, hash, resp);
+        }
+        String text = (String) resp.get("rawText");
+
+        progress.accept(STAGE_MODEL);
+        try {
+            final String safeText = truncateForModel(text);
+
+            MultiValueMap<String, String> form = new LinkedMultiValueMap<>();
+            form.add("text", safeText);
+
+            // Fan out on the shared bounded pool; both calls share one overall deadline
+            CompletableFuture<Map<String, Object>> classifyF = CompletableFuture
+                    .supplyAsync(() -> classify(form, safeText), modelExecutor);
+            CompletableFuture<Map<String, Object>> flashF = CompletableFuture
+                    .supplyAsync(() -> flashcards(form), modelExecutor);
+            try {
+                CompletableFuture.allOf(classifyF, flashF).get(deadlineMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException te) {
+                resp.put("model_error", "Model service did not respond within " + deadlineMs + " ms");
+            }
+            // Merge whatever finished in time; late results are dropped
+            Map<String, Object> classifyPart = classifyF.getNow(null);
+            Map<String, Object> flashPart = flashF.getNow(null);
+            classifyF.cancel(true);
+            flashF.cancel(true);
+            if (classifyPart != null)
+                resp.putAll(classifyPart);
+            if (flashPart != null)
+                resp.putAll(flashPart);
+        } catch (Exception ex) {
+            resp.put("model_error", "Could not call model service: " + ex.getMessage());
+        }
+
+        // Only complete answers are worth replaying
+        if (!resp.containsKey("model_error") && !resp.containsKey("classify_error")
+                && !resp.containsKey("flashcards_error")) {
+            cache.put(CACHE_FULL, hash, resp);
+        }
+        return resp;
+    }
+
+    private static String truncateForModel(String text) {
+        String safeText = text == null ? "" : text;
+        if (safeText.length() > MODEL_MAX_CHARS) {
+            safeText = safeText.substring(0, MODEL_MAX_CHARS);
+        }
+        String[] words = safeText.split("\\s+");
+        if (words.length > MODEL_MAX_WORDS) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < MODEL_MAX_WORDS; i++) {
+                sb.append(words[i]);
+                sb.append(' ');
+            }
+            safeText = sb.toString().trim();
+        }
+        return safeText;
+    }
+
+    private Map<String, Object> classify(MultiValueMap<String, String> form, String text) {
+        Map<String, Object> out = new HashMap<>();
+        try {
+            Map<String, Object> classifyRes = modelService.postForm(ModelServiceClient.CLASSIFY, form);
+            if (classifyRes == null) {
+                out.put("classify", null);
+            } else if (classifyRes.get("words") instanceof List) {
+                out.put("classify", classifyRes.get("words"));
+            } else {
+                out.put("classify", classifyRes);
+            }
+        } catch (Exception e) {
+            out.put("classify_error", e.getMessage());
+            try {
+                Set<String> uniq = new LinkedHashSet<>();
+                String[] toks = text.replaceAll("[^A-Za-zÀ-ỹ0-9\\s]", " ").split("\\s+");
+                for (String t : toks) {
+                    if (t == null)
+                        continue;
+                    String tt = t.trim();
+                    if (tt.length() >= 2)
+                        uniq.add(tt);
+                    if (uniq.size() >= 200)
+                        break;
+                }
+                List<Map<String, String>> fallback = new ArrayList<>();
+                for (String s : uniq) {
+                    Map<String, String> m = new HashMap<>();
+                    m.put("word", s);
+                    m.put("level", "easy");
+                    fallback.add(m);
+                }
+                out.put("classify", fallback);
+            } catch (Exception exx) {
+                out.put("classify", null);
+            }
+        }
+        return out;
+    }
+
+    private Map<String, Object> flashcards(MultiValueMap<String, String> form) {
+        Map<String, Object> out = new HashMap<>();
+        try {
+            Map<String, Object> flashRes = modelService.postForm(ModelServiceClient.FLASHCARDS, form);
+            out.put("flashcards", flashRes);
+        } catch (Exception e) {
+            out.put("flashcards_error", e.getMessage());
+        }
+        return out;
+    }
+}
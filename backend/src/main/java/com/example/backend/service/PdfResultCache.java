@@ -0,0 +1,160 @@
+package com.example.backend.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Content-addressed cache for PDF import results, keyed by the SHA-256 of the
+ * uploaded bytes plus a kind (extracted text vs full model response).
+ *
+ * Values are stored as serialized JSON so entries have an exact byte weight
+ * and callers always get a private copy. The in-process tier is an LRU bounded
+ * by both entry count and total bytes; an optional disk tier under
+ * {@code pdf.cache.dir} survives restarts and is promoted into memory on hit.
+ */
+@Component
+public class PdfResultCache {
+
+    private static final Logger log = LoggerFactory.getLogger(PdfResultCache.class);
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {
+    };
+
+    private final ObjectMapper mapper;
+    private final int maxEntries;
+    private final long maxWeightBytes;
+    private final Path diskDir;
+    private final LinkedHashMap<String, byte[]> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private long weightBytes;
+
+    private final Counter memoryHits;
+    private final Counter diskHits;
+    private final Counter misses;
+
+    public PdfResultCache(ObjectMapper mapper, MeterRegistry registry,
+            @Value("${pdf.cache.max-entries:100}") int maxEntries,
+            @Value("${pdf.cache.max-weight-bytes:67108864}") long maxWeightBytes,
+            @Value("${pdf.cache.dir:}") String diskDir) {
+        this.mapper = mapper;
+        this.maxEntries = maxEntries;
+        this.maxWeightBytes = maxWeightBytes;
+        this.diskDir = diskDir.isBlank() ? null : Path.of(diskDir);
+
+        this.memoryHits = Counter.builder("pdf.cache.hits").tag("tier", "memory").register(registry);
+        this.diskHits = Counter.builder("pdf.cache.hits").tag("tier", "disk").register(registry);
+        this.misses = Counter.builder("pdf.cache.misses").register(registry);
+        Gauge.builder("pdf.cache.entries", this, c -> c.size()).register(registry);
+        Gauge.builder("pdf.cache.weight.bytes", this, c -> c.weight()).register(registry);
+    }
+
+    public Map<String, Object> get(String kind, String hash) {
+        String key = kind + ":" + hash;
+        byte[] bytes;
+        synchronized (this) {
+            bytes = memory.get(key);
+        }
+        if (bytes != null) {
+            memoryHits.increment();
+            return decode(bytes);
+        }
+        bytes = readDisk(kind, hash);
+        if (bytes != null) {
+            diskHits.increment();
+            putMemory(key, bytes);
+            return decode(bytes);
+        }
+        misses.increment();
+        return null;
+    }
+
+    public void put(String kind, String hash, Map<String, Object> value) {
+        String key = kind + ":" + hash;
+        byte[] bytes;
+        try {
+            bytes = mapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            log.warn("Could not serialize PDF cache entry {}: {}", key, e.toString());
+            return;
+        }
+        putMemory(key, bytes);
+        writeDisk(kind, hash, bytes);
+    }
+
+    private synchronized void putMemory(String key, byte[] bytes) {
+        if (bytes.length > maxWeightBytes)
+            return;
+        byte[] previous = memory.put(key, bytes);
+        if (previous != null)
+            weightBytes -= previous.length;
+        weightBytes += bytes.length;
+        // Evict least recently used until both bounds hold
+        Iterator<Map.Entry<String, byte[]>> it = memory.entrySet().iterator();
+        while ((memory.size() > maxEntries || weightBytes > maxWeightBytes) && it.hasNext()) {
+            Map.Entry<String, byte[]> eldest = it.next();
+            weightBytes -= eldest.getValue().length;
+            it.remove();
+        }
+    }
+
+    private synchronized int size() {
+        return memory.size();
+    }
+
+    private synchronized long weight() {
+        return weightBytes;
+    }
+
+    private Map<String, Object> decode(byte[] bytes) {
+        try {
+            return mapper.readValue(bytes, MAP_TYPE);
+        } catch (IOException e) {
+            log.warn("Corrupt PDF cache entry: {}", e.toString());
+            return null;
+        }
+    }
+
+    private Path diskPath(String kind, String hash) {
+        // Shard by the first two hex chars to keep directories small
+        return diskDir.resolve(hash.substring(0, 2)).resolve(hash + "." + kind + ".json");
+    }
+
+    private byte[] readDisk(String kind, String hash) {
+        if (diskDir == null)
+            return null;
+        Path path = diskPath(kind, hash);
+        try {
+            return Files.exists(path) ? Files.readAllBytes(path) : null;
+        } catch (IOException e) {
+            log.warn("Could not read PDF cache file {}: {}", path, e.toString());
+            return null;
+        }
+    }
+
+    private void writeDisk(String kind, String hash, byte[] bytes) {
+        if (diskDir == null)
+            return;
+        Path path = diskPath(kind, hash);
+        try {
+            Files.createDirectories(path.getParent());
+            Path tmp = Files.createTempFile(path.getParent(), "entry-", ".tmp");
+            Files.write(tmp, bytes);
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not write PDF cache file {}: {}", path, e.toString());
+        }
+    }
+}
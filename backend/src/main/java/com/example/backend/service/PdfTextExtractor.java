@@ -0,0 +1,189 @@
+package com.example.backend.service;
+
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Extracts text from uploaded PDFs without holding the whole document on heap.
+ *
+ * The upload is spooled to a temp file and opened with a mixed memory setting
+ * so PDFBox scratch buffers spill to disk. Pages are stripped in fixed-size
+ * ranges, one wave of ranges per extraction thread in parallel (each range
+ * opens its own PDDocument since PDFBox documents are not thread-safe), and
+ * extraction stops as soon as the char/word budget is reached.
+ */
+@Service
+public class PdfTextExtractor {
+
+    public record Result(String text, int pageCount, int pagesRead, boolean truncated) {
+    }
+
+    private final Executor executor;
+    private final int pagesPerRange;
+    private final int parallelism;
+    private final long mainMemoryBytes;
+    private final String scratchDir;
+
+    public PdfTextExtractor(@Qualifier("pdfExtractExecutor") Executor executor,
+            @Value("${pdf.extract.pages-per-range:8}") int pagesPerRange,
+            @Value("${pdf.extract.threads:0}") int threads,
+            @Value("${pdf.extract.main-memory-bytes:4194304}") long mainMemoryBytes,
+            @Value("${pdf.extract.scratch-dir:}") String scratchDir) {
+        this.executor = executor;
+        this.pagesPerRange = Math.max(1, pagesPerRange);
+        this.parallelism = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.mainMemoryBytes = mainMemoryBytes;
+        this.scratchDir = scratchDir;
+    }
+
+    /**
+     * Extract text in page order until {@code maxChars} characters or
+     * {@code maxWords} words have been collected (whichever comes first).
+     */
+    public Result extract(InputStream in, int maxChars, int maxWords) throws IOException {
+        Path tmp = spool(in);
+        try {
+            return extract(tmp, maxChars, maxWords);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Copy {@code in} to a new temp file in the scratch directory. The caller
+     * deletes the file when done with it.
+     */
+    public Path spool(InputStream in) throws IOException {
+        Path tmp = scratchDir.isBlank()
+                ? Files.createTempFile("pdf-upload-", ".pdf")
+                : Files.createTempFile(Path.of(scratchDir), "pdf-upload-", ".pdf");
+        try {
+            Files.copy(in, tmp, StandardCopyOption.REPLACE_EXISTING);
+            return tmp;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+    }
+
+    /** Same as {@link #extract(InputStream, int, int)} for a PDF already on disk. */
+    public Result extract(Path pdf, int maxChars, int maxWords) throws IOException {
+        File file = pdf.toFile();
+        int pageCount;
+        try (PDDocument doc = PDDocument.load(file, memoryUsage())) {
+            pageCount = doc.getNumberOfPages();
+            // Small documents: no point paying for extra loads, strip in place
+            if (pageCount <= pagesPerRange) {
+                String text = new PDFTextStripper().getText(doc);
+                return new Result(text, pageCount, pageCount, false);
+            }
+        }
+
+        StringBuilder out = new StringBuilder();
+        int words = 0;
+        int nextPage = 1;
+        while (nextPage <= pageCount) {
+            // Ranges not yet started when we stop skip the file entirely
+            AtomicBoolean stopped = new AtomicBoolean();
+            List<CompletableFuture<String>> wave = new ArrayList<>(parallelism);
+            List<Integer> waveEnds = new ArrayList<>(parallelism);
+            for (int i = 0; i < parallelism && nextPage <= pageCount; i++) {
+                int start = nextPage;
+                int end = Math.min(pageCount, start + pagesPerRange - 1);
+                wave.add(CompletableFuture.supplyAsync(
+                        () -> stopped.get() ? "" : stripRange(file, start, end), executor));
+                waveEnds.add(end);
+                nextPage = end + 1;
+            }
+            try {
+                for (int i = 0; i < wave.size(); i++) {
+                    String chunk = join(wave.get(i));
+                    out.append(chunk);
+                    words += countWords(chunk);
+                    if (out.length() >= maxChars || words >= maxWords) {
+                        int pagesRead = waveEnds.get(i);
+                        return new Result(out.toString(), pageCount, pagesRead, pagesRead < pageCount);
+                    }
+                }
+            } finally {
+                // The caller deletes the file once we return: no range may still be reading it
+                stopped.set(true);
+                awaitAll(wave);
+            }
+        }
+        return new Result(out.toString(), pageCount, pageCount, false);
+    }
+
+    private String stripRange(File file, int startPage, int endPage) {
+        try (PDDocument doc = PDDocument.load(file, memoryUsage())) {
+            PDFTextStripper stripper = new PDFTextStripper();
+            stripper.setStartPage(startPage);
+            stripper.setEndPage(endPage);
+            return stripper.getText(doc);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private MemoryUsageSetting memoryUsage() {
+        MemoryUsageSetting setting = MemoryUsageSetting.setupMixed(mainMemoryBytes);
+        if (!scratchDir.isBlank())
+            setting.setTempDir(new File(scratchDir));
+        return setting;
+    }
+
+    /**
+     * Wait for every range of a wave to finish. Not {@code cancel}: that
+     * completes the future without stopping a range that is already running.
+     */
+    private static void awaitAll(List<CompletableFuture<String>> wave) {
+        for (CompletableFuture<String> f : wave) {
+            try {
+                f.join();
+            } catch (CompletionException | CancellationException e) {
+                // Already reported by the range the loop stopped on, or irrelevant past the budget
+            }
+        }
+    }
+
+    private static String join(CompletableFuture<String> f) throws IOException {
+        try {
+            return f.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException uio)
+                throw uio.getCause();
+            throw e;
+        }
+    }
+
+    private static int countWords(String s) {
+        int count = 0;
+        boolean inWord = false;
+        for (int i = 0; i < s.length(); i++) {
+            boolean ws = Character.isWhitespace(s.charAt(i));
+            if (!ws && !inWord)
+                count++;
+            inWord = !ws;
+        }
+        return count;
+    }
+}
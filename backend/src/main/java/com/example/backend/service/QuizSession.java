@@ -0,0 +1,113 @@
+package com.example.backend.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A snapshotted question deck plus the player's progress. Prompts, options
+ * and the answer key are held in flat arrays; the key never leaves the
+ * server until a question has been answered.
+ */
+public class QuizSession {
+
+    public record Grade(boolean correct, int correctIndex, int score, int answered) {
+    }
+
+    private final String id;
+    private final long ownerId;
+    private final long setId;
+    private final String type;
+    private final String[] prompts;
+    private final String[][] options;
+    private final byte[] correct;
+    // chosen option per question, -1 while unanswered
+    private final byte[] answers;
+
+    private int score;
+    private int answered;
+    private volatile long lastAccess = System.currentTimeMillis();
+
+    QuizSession(String id, long ownerId, long setId, String type, String[] prompts, String[][] options,
+            byte[] correct) {
+        this.id = id;
+        this.ownerId = ownerId;
+        this.setId = setId;
+        this.type = type;
+        this.prompts = prompts;
+        this.options = options;
+        this.correct = correct;
+        this.answers = new byte[prompts.length];
+        Arrays.fill(answers, (byte) -1);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    long getOwnerId() {
+        return ownerId;
+    }
+
+    public int size() {
+        return prompts.length;
+    }
+
+    long getLastAccess() {
+        return lastAccess;
+    }
+
+    void touch() {
+        lastAccess = System.currentTimeMillis();
+    }
+
+    /** Questions {@code [offset, offset + limit)} without the answer key. */
+    public List<Map<String, Object>> questions(int offset, int limit) {
+        int from = Math.max(0, offset);
+        int to = Math.min(prompts.length, from + Math.max(0, limit));
+        List<Map<String, Object>> out = new ArrayList<>(Math.max(0, to - from));
+        for (int i = from; i < to; i++) {
+            Map<String, Object> q = new LinkedHashMap<>();
+            q.put("index", i);
+            q.put("prompt", prompts[i]);
+            q.put("options", List.of(options[i]));
+            out.add(q);
+        }
+        return out;
+    }
+
+    /**
+     * Grades one answer.
+     *
+     * @throws IllegalArgumentException for an out-of-range question or option
+     * @throws IllegalStateException    when the question was already answered
+     */
+    public synchronized Grade answer(int index, int choice) {
+        if (index < 0 || index >= prompts.length)
+            throw new IllegalArgumentException("No question at index " + index);
+        if (choice < 0 || choice >= options[index].length)
+            throw new IllegalArgumentException("No option " + choice + " for question " + index);
+        if (answers[index] >= 0)
+            throw new IllegalStateException("Question " + index + " already answered");
+        answers[index] = (byte) choice;
+        answered++;
+        boolean ok = correct[index] == choice;
+        if (ok)
+            score++;
+        return new Grade(ok, correct[index], score, answered);
+    }
+
+    public synchronized Map<String, Object> toView() {
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("sessionId", id);
+        view.put("setId", setId);
+        view.put("type", type);
+        view.put("total", prompts.length);
+        view.put("answered", answered);
+        view.put("score", score);
+        view.put("finished", answered == prompts.length);
+        return view;
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory store of quiz sessions. A session's deck is built once from the
+ * set's cached game options when it is created; grading afterwards is a
+ * lookup in the session. Sessions idle for longer than the TTL are dropped.
+ * <p>
+ * Each session belongs to the user who created it and is invisible to
+ * everyone else. A user holds at most {@code game.sessions.max-per-user}
+ * sessions; starting another one replaces their least recently used.
+ */
+@Service
+public class QuizSessionService {
+
+    public static final String MULTIPLE_CHOICE = "multiple-choice";
+    public static final String SENTENCE_CHOICE = "sentence-choice";
+    private static final int MAX_OPTIONS = 10;
+
+    private final GameQuestionService questionService;
+    private final long ttlMs;
+    private final int maxSessions;
+    private final int maxPerUser;
+    private final Map<String, QuizSession> sessions = new ConcurrentHashMap<>();
+
+    public QuizSessionService(GameQuestionService questionService,
+            @Value("${game.sessions.ttl-ms:1800000}") long ttlMs,
+            @Value("${game.sessions.max:10000}") int maxSessions,
+            @Value("${game.sessions.max-per-user:5}") int maxPerUser) {
+        this.questionService = questionService;
+        this.ttlMs = ttlMs;
+        this.maxSessions = maxSessions;
+        this.maxPerUser = Math.max(1, maxPerUser);
+    }
+
+    /**
+     * Snapshots a shuffled deck for the set, owned by {@code ownerId}.
+     *
+     * @throws IllegalArgumentException for an unknown type or a set without
+     *                                  playable cards
+     * @throws IllegalStateException    when the session store is full
+     */
+    public QuizSession create(long ownerId, long setId, String type, int optionsCount) {
+        evictExpired();
+        // Checked before building the deck, so the cap also bounds generation work
+        evictOldestOf(ownerId);
+        if (sessions.size() >= maxSessions)
+            throw new IllegalStateException("Too many active quiz sessions");
+        int count = Math.min(MAX_OPTIONS, Math.max(2, optionsCount));
+
+        List<Map<String, Object>> questions;
+        if (MULTIPLE_CHOICE.equals(type)) {
+            questions = questionService.multipleChoice(setId, count);
+        } else if (SENTENCE_CHOICE.equals(type)) {
+            questions = questionService.sentenceChoice(setId, count);
+        } else {
+            throw new IllegalArgumentException("Unknown quiz type: " + type);
+        }
+        if (questions.isEmpty())
+            throw new IllegalArgumentException("No questions available for set " + setId);
+
+        questions = new ArrayList<>(questions);
+        Collections.shuffle(questions);
+        int n = questions.size();
+        String[] prompts = new String[n];
+        String[][] options = new String[n][];
+        byte[] correct = new byte[n];
+        for (int i = 0; i < n; i++) {
+            Map<String, Object> q = questions.get(i);
+            if (MULTIPLE_CHOICE.equals(type)) {
+                prompts[i] = Objects.toString(q.get("term"), "");
+                options[i] = toArray(q.get("options"));
+                correct[i] = (byte) indexOfIgnoreCase(options[i], Objects.toString(q.get("correct"), ""));
+            } else {
+                prompts[i] = Objects.toString(q.get("word"), "");
+                String[] sentences = toArray(q.get("sentences"));
+                int correctIdx = q.get("correct_index") instanceof Number num ? num.intValue() : 0;
+                String answer = correctIdx >= 0 && correctIdx < sentences.length ? sentences[correctIdx] : null;
+                // the cached order always puts the answer first; shuffle it per session
+                List<String> shuffled = new ArrayList<>(List.of(sentences));
+                Collections.shuffle(shuffled);
+                options[i] = shuffled.toArray(new String[0]);
+                correct[i] = (byte) (answer == null ? 0 : shuffled.indexOf(answer));
+            }
+        }
+
+        QuizSession session = new QuizSession(UUID.randomUUID().toString(), ownerId, setId, type, prompts, options,
+                correct);
+        sessions.put(session.getId(), session);
+        return session;
+    }
+
+    /**
+     * The live session, or null if it is unknown, has expired or belongs to
+     * another user.
+     */
+    public QuizSession find(String id, long userId) {
+        QuizSession session = sessions.get(id);
+        if (session == null || session.getOwnerId() != userId)
+            return null;
+        if (isExpired(session, System.currentTimeMillis())) {
+            sessions.remove(id, session);
+            return null;
+        }
+        session.touch();
+        return session;
+    }
+
+    private boolean isExpired(QuizSession session, long now) {
+        return now - session.getLastAccess() > ttlMs;
+    }
+
+    /** Drops the owner's least recently used sessions until one more fits. */
+    private void evictOldestOf(long ownerId) {
+        List<QuizSession> own = new ArrayList<>();
+        for (QuizSession s : sessions.values()) {
+            if (s.getOwnerId() == ownerId)
+                own.add(s);
+        }
+        if (own.size() < maxPerUser)
+            return;
+        own.sort(Comparator.comparingLong(QuizSession::getLastAccess));
+        for (int i = 0; i <= own.size() - maxPerUser; i++) {
+            sessions.remove(own.get(i).getId(), own.get(i));
+        }
+    }
+
+    private void evictExpired() {
+        long now = System.currentTimeMillis();
+        sessions.values().removeIf(s -> isExpired(s, now));
+    }
+
+    private static String[] toArray(Object list) {
+        if (!(list instanceof List<?> values))
+            return new String[0];
+        return values.stream().map(v -> Objects.toString(v, "")).toArray(String[]::new);
+    }
+
+    private static int indexOfIgnoreCase(String[] options, String value) {
+        for (int i = 0; i < options.length; i++) {
+            if (options[i].equalsIgnoreCase(value))
+                return i;
+        }
+        return 0;
+    }
+}
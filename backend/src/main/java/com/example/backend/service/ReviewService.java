@@ -0,0 +1,117 @@
+package com.example.backend.service;
+
+import com.example.backend.exception.ResourceNotFoundException;
+import com.example.backend.model.CardReview;
+import com.example.backend.model.Flashcard;
+import com.example.backend.repository.CardReviewRepository;
+import com.example.backend.repository.FlashcardRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Spaced-repetition scheduling (SM-2). Grades run from 0 (blackout) to 5
+ * (perfect recall); anything below 3 is a lapse and restarts the card.
+ */
+@Service
+public class ReviewService {
+
+    public static final int MAX_GRADE = 5;
+    private static final int PASSING_GRADE = 3;
+    private static final double MIN_EASE = 1.3;
+
+    private final CardReviewRepository reviewRepo;
+    private final FlashcardRepository cardRepo;
+
+    public ReviewService(CardReviewRepository reviewRepo, FlashcardRepository cardRepo) {
+        this.reviewRepo = reviewRepo;
+        this.cardRepo = cardRepo;
+    }
+
+    /** The user's next {@code limit} due cards, most overdue first. */
+    @Transactional(readOnly = true)
+    public List<CardReview> findDue(Long userId, int limit) {
+        return reviewRepo.findDue(userId, Instant.now(), PageRequest.of(0, limit));
+    }
+
+    /**
+     * Records a grade and reschedules the card. A card reviewed for the first
+     * time gets its state created here.
+     *
+     * @throws IllegalArgumentException  for a grade outside 0..5
+     * @throws ResourceNotFoundException for an unknown card
+     */
+    @Transactional
+    public CardReview grade(Long userId, Long cardId, int grade) {
+        if (grade < 0 || grade > MAX_GRADE)
+            throw new IllegalArgumentException("Grade must be between 0 and " + MAX_GRADE);
+        Instant now = Instant.now();
+        CardReview review = reviewRepo.findByUserIdAndCardId(userId, cardId).orElseGet(() -> {
+            Flashcard card = cardRepo.findById(cardId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Card not found: " + cardId));
+            return new CardReview(userId, cardId, card.getSet().getId(), now);
+        });
+        schedule(review, grade, now);
+        return reviewRepo.save(review);
+    }
+
+    /**
+     * Adds every card of the set the user is not yet reviewing, due now.
+     *
+     * @return the number of cards added
+     */
+    @Transactional
+    public int enrollSet(Long userId, Long setId) {
+        Set<Long> existing = new HashSet<>(reviewRepo.findCardIdsByUserIdAndSetId(userId, setId));
+        Instant now = Instant.now();
+        List<CardReview> added = new ArrayList<>();
+        for (Flashcard card : cardRepo.findBySetId(setId)) {
+            if (!existing.contains(card.getId()))
+                added.add(new CardReview(userId, card.getId(), setId, now));
+        }
+        reviewRepo.saveAll(added);
+        return added.size();
+    }
+
+    /**
+     * Drops review rows whose card no longer exists (left behind by deletes
+     * made before reviews were cleaned up with their cards), so they stop
+     * taking up the head of the due queue.
+     */
+    @Transactional
+    public void discard(List<Long> reviewIds) {
+        if (!reviewIds.isEmpty())
+            reviewRepo.deleteByIdIn(reviewIds);
+    }
+
+    // Package-private for ReviewServiceTest
+    static void schedule(CardReview r, int grade, Instant now) {
+        if (grade < PASSING_GRADE) {
+            r.setRepetitions(0);
+            r.setIntervalDays(1);
+            r.setLapses(r.getLapses() + 1);
+        } else {
+            int reps = r.getRepetitions() + 1;
+            int interval;
+            if (reps == 1)
+                interval = 1;
+            else if (reps == 2)
+                interval = 6;
+            else
+                interval = (int) Math.round(r.getIntervalDays() * r.getEase());
+            r.setRepetitions(reps);
+            r.setIntervalDays(Math.max(1, interval));
+        }
+        int miss = MAX_GRADE - grade;
+        r.setEase(Math.max(MIN_EASE, r.getEase() + 0.1 - miss * (0.08 + miss * 0.02)));
+        r.setLastReviewedAt(now);
+        r.setDue(now.plus(Duration.ofDays(r.getIntervalDays())));
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.backend.service;
+
+import com.example.backend.model.FlashcardSet;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for the public feed. Encodes the sort column, the
+ * value of that column on the last returned row and the row id as a tie
+ * breaker, so the next page can seek with {@code WHERE (key, id) < (?, ?)}
+ * instead of skipping OFFSET rows.
+ */
+public final class SetCursor {
+
+    // Stand-in for a missing created_at: the smallest datetime MySQL stores, so it
+    // sorts where MySQL puts NULLs (first ascending, last descending)
+    private static final long NULL_CREATED_AT = ChronoUnit.MICROS.between(Instant.EPOCH,
+            Instant.parse("1000-01-01T00:00:00Z"));
+
+    private final String sortBy;
+    private final long key;
+    private final long id;
+
+    public SetCursor(String sortBy, long key, long id) {
+        this.sortBy = sortBy;
+        this.key = key;
+        this.id = id;
+    }
+
+    /**
+     * Cursor pointing just past {@code last} for the given sort column.
+     * Timestamps are stored as epoch microseconds to match datetime(6). The
+     * cursor always carries the requested sort column, even for a row without
+     * a timestamp, so it keeps matching {@code sortBy} on the next request.
+     */
+    public static SetCursor after(FlashcardSet last, String sortBy) {
+        if ("createdAt".equals(sortBy)) {
+            Instant createdAt = last.getCreatedAt();
+            long key = createdAt == null ? NULL_CREATED_AT : ChronoUnit.MICROS.between(Instant.EPOCH, createdAt);
+            return new SetCursor(sortBy, key, last.getId());
+        }
+        return new SetCursor("id", last.getId(), last.getId());
+    }
+
+    public Instant keyAsInstant() {
+        return Instant.EPOCH.plus(key, ChronoUnit.MICROS);
+    }
+
+    public String getSortBy() {
+        return sortBy;
+    }
+
+    public long getKey() {
+        return key;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String encode() {
+        String raw = sortBy + ":" + key + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            if (parts.length != 3)
+                throw new IllegalArgumentException("Invalid cursor");
+            return new SetCursor(parts[0], Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
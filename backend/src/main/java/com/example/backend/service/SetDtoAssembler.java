@@ -0,0 +1,126 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.FlashcardDto;
+import com.example.backend.dto.SetDto;
+import com.example.backend.dto.SetSummaryDto;
+import com.example.backend.model.Flashcard;
+import com.example.backend.model.FlashcardSet;
+import com.example.backend.model.UserProfile;
+import com.example.backend.repository.FlashcardRepository;
+import com.example.backend.repository.UserProfileRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds set DTOs for a batch of sets with a fixed number of queries: one for
+ * owner profiles and one for card counts, regardless of how many sets are in
+ * the batch. The sets are expected to come with folder and owner already
+ * fetched (see FlashcardSetRepository entity graphs).
+ */
+@Service
+public class SetDtoAssembler {
+
+    private final FlashcardRepository flashcardRepository;
+    private final UserProfileRepository userProfileRepository;
+
+    public SetDtoAssembler(FlashcardRepository flashcardRepository, UserProfileRepository userProfileRepository) {
+        this.flashcardRepository = flashcardRepository;
+        this.userProfileRepository = userProfileRepository;
+    }
+
+    public List<SetSummaryDto> toSummaries(List<FlashcardSet> sets) {
+        if (sets == null || sets.isEmpty())
+            return List.of();
+
+        Set<Long> setIds = new HashSet<>();
+        Set<Long> ownerIds = new HashSet<>();
+        for (FlashcardSet s : sets) {
+            setIds.add(s.getId());
+            if (s.getFolder() != null && s.getFolder().getUser() != null)
+                ownerIds.add(s.getFolder().getUser().getId());
+        }
+
+        Map<Long, UserProfile> profilesByUser = new HashMap<>();
+        if (!ownerIds.isEmpty()) {
+            for (UserProfile p : userProfileRepository.findByUserIdIn(ownerIds)) {
+                profilesByUser.put(p.getUser().getId(), p);
+            }
+        }
+
+        Map<Long, Long> countsBySet = new HashMap<>();
+        for (FlashcardRepository.SetCardCount c : flashcardRepository.countBySetIds(setIds)) {
+            countsBySet.put(c.getSetId(), c.getCardCount());
+        }
+
+        List<SetSummaryDto> result = new ArrayList<>(sets.size());
+        for (FlashcardSet s : sets) {
+            SetSummaryDto d = new SetSummaryDto();
+            fill(d, s, profilesByUser);
+            d.setCardCount(countsBySet.getOrDefault(s.getId(), 0L).intValue());
+            result.add(d);
+        }
+        return result;
+    }
+
+    /**
+     * Full representation of a single set, cards included.
+     */
+    public SetDto toDto(FlashcardSet s) {
+        SetDto d = new SetDto();
+        Map<Long, UserProfile> profilesByUser = new HashMap<>();
+        if (s.getFolder() != null && s.getFolder().getUser() != null) {
+            Long ownerId = s.getFolder().getUser().getId();
+            UserProfile profile = userProfileRepository.findByUserId(ownerId);
+            if (profile != null)
+                profilesByUser.put(ownerId, profile);
+        }
+        fill(d, s, profilesByUser);
+
+        List<Flashcard> cards = flashcardRepository.findBySetId(s.getId());
+        d.setCardCount(cards.size());
+        if (!cards.isEmpty()) {
+            d.setCards(cards.stream().map(this::cardToDto).toList());
+        }
+        return d;
+    }
+
+    private void fill(SetSummaryDto d, FlashcardSet s, Map<Long, UserProfile> profilesByUser) {
+        d.setId(s.getId());
+        d.setTitle(s.getTitle());
+        d.setDescription(s.getDescription());
+        d.setAccess(s.getAccess());
+        d.setCreatedAt(s.getCreatedAt());
+        if (s.getFolder() != null)
+            d.setFolderId(s.getFolder().getId());
+
+        if (s.getFolder() != null && s.getFolder().getUser() != null) {
+            var owner = s.getFolder().getUser();
+            d.setOwnerUsername(owner.getUsername());
+            UserProfile profile = profilesByUser.get(owner.getId());
+            if (profile != null) {
+                d.setOwnerDisplayName(profile.getDisplayName());
+                d.setOwnerAvatarUrl(profile.getAvatarUrl());
+            }
+        }
+    }
+
+    public FlashcardDto cardToDto(Flashcard f) {
+        FlashcardDto d = new FlashcardDto();
+        d.setId(f.getId());
+        d.setWord(f.getWord());
+        d.setDefinition(f.getDefinition());
+        d.setPhonetic(f.getPhonetic());
+        d.setExample(f.getExample());
+        d.setType(f.getType());
+        d.setAudio(f.getAudio());
+        if (f.getSet() != null)
+            d.setSetId(f.getSet().getId());
+        return d;
+    }
+}
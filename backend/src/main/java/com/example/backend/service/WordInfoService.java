@@ -0,0 +1,43 @@
+package com.example.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Word lookups (/word-info) with a bounded in-memory LRU in front, so
+ * repeated words are answered without the model service and keep working
+ * while it is unavailable.
+ */
+@Service
+public class WordInfoService {
+
+    private final ModelServiceClient modelService;
+    private final Map<String, Map<String, Object>> cache;
+
+    public WordInfoService(ModelServiceClient modelService,
+            @Value("${word-info.cache.max-entries:2000}") int maxEntries) {
+        this.modelService = modelService;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Map<String, Object>> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    public Map<String, Object> lookup(String word) {
+        String key = word.toLowerCase(Locale.ROOT);
+        Map<String, Object> cached = cache.get(key);
+        if (cached != null)
+            return cached;
+        Map<String, Object> response = modelService.postJson(ModelServiceClient.WORD_INFO, Map.of("word", word));
+        if (response != null && !response.containsKey("error"))
+            cache.put(key, response);
+        return response;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.backend.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OptionListConverterTest {
+
+    private final OptionListConverter converter = new OptionListConverter();
+
+    @Test
+    void roundTripsOptionsWithCommasQuotesAndNewlines() {
+        List<String> options = List.of("a, b", "say \"hi\"", "line one\nline two", "back\\slash");
+
+        String column = converter.convertToDatabaseColumn(options);
+
+        assertThat(column).startsWith("[");
+        assertThat(converter.convertToEntityAttribute(column)).containsExactlyElementsOf(options);
+    }
+
+    @Test
+    void readsLegacyArraysWithUnescapedNewlines() {
+        assertThat(converter.convertToEntityAttribute("[\"first\nsentence\",\"second\"]"))
+                .containsExactly("first\nsentence", "second");
+    }
+
+    @Test
+    void readsLegacyNewlineSeparatedText() {
+        assertThat(converter.convertToEntityAttribute("apple\n banana \n\ncherry"))
+                .containsExactly("apple", "banana", "cherry");
+    }
+
+    @Test
+    void unreadableOrEmptyValuesLoadAsNull() {
+        assertThat(converter.convertToEntityAttribute("[\"unterminated")).isNull();
+        assertThat(converter.convertToEntityAttribute("   ")).isNull();
+        assertThat(converter.convertToEntityAttribute(null)).isNull();
+        assertThat(converter.convertToDatabaseColumn(null)).isNull();
+    }
+}
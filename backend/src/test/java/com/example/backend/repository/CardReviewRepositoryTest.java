@@ -0,0 +1,96 @@
+package com.example.backend.repository;
+
+import com.example.backend.model.CardReview;
+import com.example.backend.model.Flashcard;
+import com.example.backend.model.FlashcardSet;
+import com.example.backend.model.Folder;
+import com.example.backend.model.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("jpatest")
+class CardReviewRepositoryTest {
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private CardReviewRepository reviews;
+
+    private Folder folder;
+    private FlashcardSet first;
+    private FlashcardSet second;
+    private Flashcard firstCard;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setUsername("learner");
+        user.setEmail("learner@example.com");
+        user.setPassword("x");
+        em.persist(user);
+
+        folder = new Folder();
+        folder.setName("folder");
+        folder.setUser(user);
+        em.persist(folder);
+
+        first = set("first");
+        second = set("second");
+        firstCard = card(first, "a");
+        card(first, "b");
+        card(second, "c");
+        for (Long userId : new Long[] { user.getId(), user.getId() + 1 }) {
+            for (Flashcard card : em.createQuery("select f from Flashcard f", Flashcard.class).getResultList()) {
+                em.persist(new CardReview(userId, card.getId(), card.getSet().getId(), Instant.now()));
+            }
+        }
+        em.flush();
+        em.clear();
+    }
+
+    private FlashcardSet set(String title) {
+        FlashcardSet set = new FlashcardSet();
+        set.setTitle(title);
+        set.setFolder(folder);
+        em.persist(set);
+        return set;
+    }
+
+    private Flashcard card(FlashcardSet set, String word) {
+        Flashcard card = new Flashcard();
+        card.setWord(word);
+        card.setSet(set);
+        em.persist(card);
+        return card;
+    }
+
+    @Test
+    void cardDeleteClearsEveryUsersReviewsOfThatCard() {
+        assertThat(reviews.deleteByCardId(firstCard.getId())).isEqualTo(2);
+        assertThat(reviews.count()).isEqualTo(4);
+    }
+
+    @Test
+    void setDeleteClearsReviewsOfItsCards() {
+        assertThat(reviews.deleteByCardSetId(first.getId())).isEqualTo(4);
+        assertThat(reviews.findAll()).allMatch(r -> r.getSetId().equals(second.getId()));
+    }
+
+    @Test
+    void folderDeleteClearsReviewsOfAllItsSets() {
+        assertThat(reviews.deleteByCardFolderId(folder.getId())).isEqualTo(6);
+        assertThat(reviews.count()).isZero();
+    }
+}
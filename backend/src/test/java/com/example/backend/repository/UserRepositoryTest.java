@@ -0,0 +1,96 @@
+package com.example.backend.repository;
+
+import com.example.backend.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Locale;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("jpatest")
+class UserRepositoryTest {
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private UserRepository users;
+
+    private Statistics stats;
+
+    @BeforeEach
+    void setUp() {
+        stats = emf.unwrap(SessionFactory.class).getStatistics();
+        save("alice", "alice@example.com");
+        // Username that is also someone else's email
+        save("bob@example.com", "carol@example.com");
+        save("bob", "bob@example.com");
+        em.flush();
+        em.clear();
+    }
+
+    private void save(String username, String email) {
+        users.save(userWith(username, email));
+    }
+
+    private Optional<User> lookup(String identifier) {
+        em.clear();
+        stats.clear();
+        Optional<User> user = users.findByUsernameOrEmail(identifier);
+        assertThat(stats.getPrepareStatementCount()).as("statements for %s", identifier).isEqualTo(1);
+        return user;
+    }
+
+    @Test
+    void findsByUsernameOrEmailInOneQuery() {
+        assertThat(lookup("alice")).map(User::getUsername).contains("alice");
+        assertThat(lookup("alice@example.com")).map(User::getUsername).contains("alice");
+        assertThat(lookup("nobody")).isEmpty();
+    }
+
+    @Test
+    void usernameMatchWinsOverEmailMatch() {
+        assertThat(lookup("bob@example.com")).map(User::getEmail).contains("carol@example.com");
+    }
+
+    @Test
+    void duplicateKeysNameTheirConstraint() {
+        assertThatThrownBy(() -> users.saveAndFlush(userWith("alice", "other@example.com")))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .satisfies(e -> assertThat(mostSpecificMessage(e)).contains(User.UK_USERNAME));
+        em.clear();
+        assertThatThrownBy(() -> users.saveAndFlush(userWith("dave", "alice@example.com")))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .satisfies(e -> assertThat(mostSpecificMessage(e)).contains(User.UK_EMAIL));
+    }
+
+    private static User userWith(String username, String email) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(email);
+        user.setPassword("x");
+        return user;
+    }
+
+    private static String mostSpecificMessage(Throwable e) {
+        return String.valueOf(((DataIntegrityViolationException) e).getMostSpecificCause().getMessage())
+                .toLowerCase(Locale.ROOT);
+    }
+}
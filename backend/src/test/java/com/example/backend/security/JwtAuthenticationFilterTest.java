@@ -0,0 +1,74 @@
+package com.example.backend.security;
+
+import com.example.backend.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JwtAuthenticationFilterTest {
+
+    private final JwtUtil jwtUtil = spy(new JwtUtil("test-secret", 60_000, 120_000));
+    private final PrincipalCache principalCache = mock(PrincipalCache.class);
+    private final UserRepository userRepo = mock(UserRepository.class);
+    private final JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtUtil, principalCache, userRepo);
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private void filter(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/sets");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+    }
+
+    @Test
+    void parsesEachTokenOnce() throws Exception {
+        String token = jwtUtil.generateAccessToken(7L, "alice", 0);
+        when(principalCache.resolve(7L, "alice", 0)).thenReturn(new AuthenticatedUser(7L, "alice"));
+
+        filter(token);
+
+        verify(jwtUtil, times(1)).parseClaims(token);
+        verify(jwtUtil, never()).validateToken(anyString());
+        verify(jwtUtil, never()).extractUsername(anyString());
+        verify(userRepo, never()).findByUsername(anyString());
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(auth).isNotNull();
+        assertThat(auth.getPrincipal()).isEqualTo(new AuthenticatedUser(7L, "alice"));
+    }
+
+    @Test
+    void refreshTokensDoNotAuthenticateRequests() throws Exception {
+        String token = jwtUtil.generateRefreshToken(7L, "alice", 0);
+
+        filter(token);
+
+        verify(jwtUtil, times(1)).parseClaims(token);
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    @Test
+    void revokedTokensDoNotAuthenticateRequests() throws Exception {
+        String token = jwtUtil.generateAccessToken(7L, "alice", 0);
+        when(principalCache.resolve(7L, "alice", 0)).thenReturn(null);
+
+        filter(token);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.backend.security;
+
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtUtilTest {
+
+    private final JwtUtil jwtUtil = new JwtUtil("test-secret", 60_000, 120_000);
+
+    @Test
+    void parseClaimsReturnsEveryClaimFromOneParse() {
+        Claims claims = jwtUtil.parseClaims(jwtUtil.generateAccessToken(7L, "alice", 3));
+
+        assertThat(claims).isNotNull();
+        assertThat(claims.getSubject()).isEqualTo("alice");
+        assertThat(JwtUtil.userId(claims)).isEqualTo(7L);
+        assertThat(JwtUtil.tokenVersion(claims)).isEqualTo(3);
+        assertThat(JwtUtil.isRefresh(claims)).isFalse();
+    }
+
+    @Test
+    void refreshTokensAreTyped() {
+        Claims claims = jwtUtil.parseClaims(jwtUtil.generateRefreshToken(7L, "alice", 0));
+
+        assertThat(JwtUtil.isRefresh(claims)).isTrue();
+    }
+
+    @Test
+    void rejectsTokensSignedWithAnotherKey() {
+        String foreign = new JwtUtil("other-secret", 60_000, 120_000).generateAccessToken(7L, "alice", 0);
+
+        assertThat(jwtUtil.parseClaims(foreign)).isNull();
+        assertThat(jwtUtil.validateToken(foreign)).isFalse();
+    }
+
+    @Test
+    void rejectsExpiredAndMalformedTokens() {
+        String expired = new JwtUtil("test-secret", -1_000, -1_000).generateAccessToken(7L, "alice", 0);
+
+        assertThat(jwtUtil.parseClaims(expired)).isNull();
+        assertThat(jwtUtil.parseClaims("not-a-jwt")).isNull();
+        assertThat(jwtUtil.extractUsername("not-a-jwt")).isNull();
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.backend.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHasherTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger hashed = new AtomicInteger();
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+    // "block" parks the single worker until released; everything else is counted
+    private final PasswordEncoder encoder = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence raw) {
+            if ("block".contentEquals(raw)) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            } else {
+                hashed.incrementAndGet();
+            }
+            return "hash:" + raw;
+        }
+
+        @Override
+        public boolean matches(CharSequence raw, String encoded) {
+            return encode(raw).equals(encoded);
+        }
+    };
+
+    private PasswordHasher hasher() {
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(4);
+        executor.initialize();
+        return new PasswordHasher(encoder, executor, new SimpleMeterRegistry(), 100);
+    }
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void hashesOnThePool() {
+        PasswordHasher hasher = hasher();
+
+        assertThat(hasher.encode("secret")).isEqualTo("hash:secret");
+        assertThat(hasher.matches("secret", "hash:secret")).isTrue();
+    }
+
+    @Test
+    void timedOutHashIsDroppedInsteadOfRunningLater() throws Exception {
+        PasswordHasher hasher = hasher();
+        CompletableFuture<String> blocker = CompletableFuture.supplyAsync(() -> hasher.encode("block"));
+        // Wait until the worker is busy with the blocking hash
+        while (executor.getActiveCount() == 0)
+            Thread.sleep(5);
+
+        assertThatThrownBy(() -> hasher.encode("queued"))
+                .isInstanceOf(RejectedExecutionException.class);
+        assertThat(executor.getThreadPoolExecutor().getQueue()).isEmpty();
+
+        release.countDown();
+        blocker.get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+        executor.getThreadPoolExecutor().awaitTermination(5, TimeUnit.SECONDS);
+        assertThat(hashed).hasValue(0);
+    }
+}
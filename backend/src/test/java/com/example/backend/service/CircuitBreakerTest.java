@@ -0,0 +1,134 @@
+package com.example.backend.service;
+
+import com.example.backend.service.CircuitBreaker.Permit;
+import com.example.backend.service.CircuitBreaker.State;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+
+    // window 4, opens at >= 50% failures once 4 calls are in, 100 ms open, 2 trial calls
+    private CircuitBreaker breaker() {
+        return new CircuitBreaker(4, 4, 0.5, 100, 2, null, now::get);
+    }
+
+    private static void run(CircuitBreaker breaker, boolean success) {
+        Permit permit = breaker.tryAcquire();
+        assertThat(permit).isNotNull();
+        permit.complete(success);
+    }
+
+    private void tripOpen(CircuitBreaker breaker) {
+        run(breaker, true);
+        run(breaker, true);
+        run(breaker, false);
+        run(breaker, false);
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+    }
+
+    @Test
+    void opensOnFailureRateAndRejectsUntilOpenPeriodEnds() {
+        CircuitBreaker breaker = breaker();
+        run(breaker, true);
+        run(breaker, false);
+        run(breaker, true);
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+        run(breaker, false);
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+
+        assertThat(breaker.tryAcquire()).isNull();
+        now.addAndGet(100);
+        assertThat(breaker.tryAcquire()).isNotNull();
+        assertThat(breaker.getState()).isEqualTo(State.HALF_OPEN);
+    }
+
+    @Test
+    void closesAfterAllTrialsSucceed() {
+        CircuitBreaker breaker = breaker();
+        tripOpen(breaker);
+        now.addAndGet(100);
+
+        Permit first = breaker.tryAcquire();
+        Permit second = breaker.tryAcquire();
+        assertThat(breaker.tryAcquire()).as("only two trial permits").isNull();
+        first.complete(true);
+        assertThat(breaker.getState()).isEqualTo(State.HALF_OPEN);
+        second.complete(true);
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+    }
+
+    @Test
+    void failedTrialReopens() {
+        CircuitBreaker breaker = breaker();
+        tripOpen(breaker);
+        now.addAndGet(100);
+
+        breaker.tryAcquire().complete(false);
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+        assertThat(breaker.tryAcquire()).isNull();
+    }
+
+    @Test
+    void callsAdmittedBeforeOpeningDoNotCountAsTrials() {
+        CircuitBreaker breaker = breaker();
+        Permit slow = breaker.tryAcquire();
+        Permit slowFailure = breaker.tryAcquire();
+        tripOpen(breaker);
+        now.addAndGet(100);
+        Permit trial = breaker.tryAcquire();
+
+        // finishing late must neither close nor re-open the half-open breaker
+        slow.complete(true);
+        slowFailure.complete(false);
+        assertThat(breaker.getState()).isEqualTo(State.HALF_OPEN);
+
+        trial.complete(true);
+        breaker.tryAcquire().complete(true);
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+    }
+
+    @Test
+    void errorInsideGuardedCallReleasesTrialAsFailure() {
+        CircuitBreaker breaker = breaker();
+        tripOpen(breaker);
+        now.addAndGet(100);
+
+        assertThatThrownBy(() -> guarded(breaker, () -> {
+            throw new StackOverflowError();
+        })).isInstanceOf(StackOverflowError.class);
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+
+        // not stuck: after the next open period trials are admitted again
+        now.addAndGet(100);
+        assertThat(breaker.tryAcquire()).isNotNull();
+    }
+
+    @Test
+    void completingTwiceCountsOnce() {
+        CircuitBreaker breaker = breaker();
+        tripOpen(breaker);
+        now.addAndGet(100);
+
+        Permit trial = breaker.tryAcquire();
+        trial.complete(true);
+        trial.complete(true);
+        assertThat(breaker.getState()).isEqualTo(State.HALF_OPEN);
+    }
+
+    private static void guarded(CircuitBreaker breaker, Runnable call) {
+        Permit permit = breaker.tryAcquire();
+        boolean success = false;
+        try {
+            call.run();
+            success = true;
+        } finally {
+            permit.complete(success);
+        }
+    }
+}
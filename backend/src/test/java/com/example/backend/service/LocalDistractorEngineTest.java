@@ -0,0 +1,93 @@
+package com.example.backend.service;
+
+import com.example.backend.model.Flashcard;
+import com.example.backend.model.FlashcardSet;
+import com.example.backend.model.Folder;
+import com.example.backend.model.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("jpatest")
+@Import(LocalDistractorEngine.class)
+class LocalDistractorEngineTest {
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private LocalDistractorEngine engine;
+
+    private FlashcardSet publicSet;
+    private FlashcardSet privateSet;
+    private Flashcard played;
+
+    @BeforeEach
+    void setUp() {
+        User owner = new User();
+        owner.setUsername("owner");
+        owner.setEmail("owner@example.com");
+        owner.setPassword("x");
+        em.persist(owner);
+
+        Folder folder = new Folder();
+        folder.setName("folder");
+        folder.setUser(owner);
+        em.persist(folder);
+
+        publicSet = set(folder, "public", "public one", "public two");
+        set(folder, "public", "shared sibling");
+        privateSet = set(folder, "private", "private secret one", "private secret two");
+        played = em.createQuery("select f from Flashcard f where f.set = :set", Flashcard.class)
+                .setParameter("set", publicSet).getResultList().get(0);
+        em.flush();
+        em.clear();
+    }
+
+    private FlashcardSet set(Folder folder, String access, String... definitions) {
+        FlashcardSet set = new FlashcardSet();
+        set.setTitle(access);
+        set.setAccess(access);
+        set.setFolder(folder);
+        em.persist(set);
+        for (String definition : definitions) {
+            Flashcard card = new Flashcard();
+            card.setWord(definition);
+            card.setDefinition(definition);
+            card.setSet(set);
+            em.persist(card);
+        }
+        return set;
+    }
+
+    @Test
+    void publicSetsNeverDrawFromPrivateSiblings() {
+        LocalDistractorEngine.Pool pool = engine.poolFor(publicSet.getId());
+
+        assertThat(pool.size()).isEqualTo(3);
+        List<String> options = engine.distractors(pool, played, played.getDefinition(), 2);
+        assertThat(options).containsExactlyInAnyOrder("public two", "shared sibling");
+    }
+
+    @Test
+    void accessChangeIsPickedUpAfterInvalidation() {
+        assertThat(engine.poolFor(publicSet.getId()).size()).isEqualTo(3);
+
+        em.find(FlashcardSet.class, privateSet.getId()).setAccess("public");
+        em.flush();
+        engine.invalidate(privateSet.getId());
+
+        assertThat(engine.poolFor(publicSet.getId()).size()).isEqualTo(5);
+    }
+}
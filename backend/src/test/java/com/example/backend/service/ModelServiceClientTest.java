@@ -0,0 +1,120 @@
+package com.example.backend.service;
+
+import com.example.backend.exception.ModelServiceUnavailableException;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/** Breaker and bulkhead behaviour of the client against a stub model service. */
+class ModelServiceClientTest {
+
+    private static final long OPEN_MS = 200;
+
+    private HttpServer server;
+    private final AtomicInteger status = new AtomicInteger(200);
+    private final AtomicInteger hits = new AtomicInteger();
+    private ModelServiceClient client;
+
+    @BeforeEach
+    void start() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            hits.incrementAndGet();
+            byte[] body = "{\"ok\":true}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status.get(), body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        // window 4 / min 4 / 50% failures, one trial call after OPEN_MS
+        client = new ModelServiceClient(baseUrl, 10, 10, 1000, 1000, 30000, 2000, 2000, 2000, 2000, 2000,
+                4, 4, 0.5, OPEN_MS, 1, 50, 2, 2, 2, 2, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void stop() throws Exception {
+        client.close();
+        server.stop(0);
+    }
+
+    private Map<String, Object> classify() {
+        return client.postJson(ModelServiceClient.CLASSIFY, Map.of("text", "x"));
+    }
+
+    private void failFourTimes() {
+        status.set(500);
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(this::classify).isInstanceOf(HttpServerErrorException.class);
+        }
+    }
+
+    @Test
+    void serverErrorsOpenTheCircuitAndLaterCallsAreNotSent() {
+        failFourTimes();
+        assertThat(client.getCircuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        int before = hits.get();
+        assertThatThrownBy(this::classify).isInstanceOf(ModelServiceUnavailableException.class);
+        assertThat(hits.get()).isEqualTo(before);
+    }
+
+    @Test
+    void successfulTrialClosesTheCircuit() throws Exception {
+        failFourTimes();
+        Thread.sleep(OPEN_MS + 50);
+
+        status.set(200);
+        assertThat(classify()).containsEntry("ok", true);
+        assertThat(client.getCircuitState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void failedTrialReopensTheCircuit() throws Exception {
+        failFourTimes();
+        Thread.sleep(OPEN_MS + 50);
+
+        assertThatThrownBy(this::classify).isInstanceOf(HttpServerErrorException.class);
+        assertThat(client.getCircuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThatThrownBy(this::classify).isInstanceOf(ModelServiceUnavailableException.class);
+    }
+
+    @Test
+    void clientErrorsDoNotOpenTheCircuit() {
+        status.set(400);
+        for (int i = 0; i < 6; i++) {
+            assertThatThrownBy(this::classify).isInstanceOf(HttpClientErrorException.class);
+        }
+        assertThat(client.getCircuitState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void endpointIgnoresTheBaseUrlPathPrefix() throws Exception {
+        ModelServiceClient proxied = new ModelServiceClient("http://127.0.0.1:1/model/", 10, 10, 1000, 1000,
+                30000, 2000, 2000, 2000, 2000, 2000, 4, 4, 0.5, OPEN_MS, 1, 50, 2, 2, 2, 2,
+                new SimpleMeterRegistry());
+        try {
+            assertThat(proxied.endpointOf(URI.create("http://127.0.0.1:1/model/classify")))
+                    .isEqualTo(ModelServiceClient.CLASSIFY);
+        } finally {
+            proxied.close();
+        }
+        assertThat(client.endpointOf(URI.create("http://127.0.0.1:1/classify"))).isEqualTo(ModelServiceClient.CLASSIFY);
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.backend.service;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PdfTextExtractorTest {
+
+    @TempDir
+    Path scratch;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // 2 pages per range, 4 ranges per wave
+    private PdfTextExtractor extractor() {
+        return new PdfTextExtractor(executor, 2, 4, 1 << 20, scratch.toString());
+    }
+
+    private static byte[] pdf(int pages) throws IOException {
+        try (PDDocument doc = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            for (int i = 1; i <= pages; i++) {
+                PDPage page = new PDPage();
+                doc.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(doc, page)) {
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, 12);
+                    content.newLineAtOffset(72, 700);
+                    content.showText("page " + i + " alpha beta gamma delta");
+                    content.endText();
+                }
+            }
+            doc.save(out);
+            return out.toByteArray();
+        }
+    }
+
+    private long scratchFiles() throws IOException {
+        try (Stream<Path> files = Files.list(scratch)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    void extractsAllPagesInOrder() throws IOException {
+        PdfTextExtractor.Result result = extractor().extract(new ByteArrayInputStream(pdf(12)), 100_000, 100_000);
+
+        assertThat(result.pageCount()).isEqualTo(12);
+        assertThat(result.pagesRead()).isEqualTo(12);
+        assertThat(result.truncated()).isFalse();
+        String text = result.text();
+        for (int i = 1; i < 12; i++) {
+            assertThat(text.indexOf("page " + i + " ")).isLessThan(text.indexOf("page " + (i + 1) + " "));
+        }
+    }
+
+    @Test
+    void stopsAtTheWordBudget() throws IOException {
+        // 6 words per page: the budget is reached inside the second range
+        PdfTextExtractor.Result result = extractor().extract(new ByteArrayInputStream(pdf(20)), 100_000, 15);
+
+        assertThat(result.pageCount()).isEqualTo(20);
+        assertThat(result.pagesRead()).isEqualTo(4);
+        assertThat(result.truncated()).isTrue();
+        assertThat(result.text()).contains("page 4 ").doesNotContain("page 5 ");
+    }
+
+    @Test
+    void leavesNoScratchFilesWhenStoppingEarly() throws IOException {
+        extractor().extract(new ByteArrayInputStream(pdf(20)), 100_000, 1);
+
+        assertThat(scratchFiles()).isZero();
+    }
+
+    @Test
+    void smallDocumentsAreStrippedInPlace() throws IOException {
+        PdfTextExtractor.Result result = extractor().extract(new ByteArrayInputStream(pdf(2)), 100_000, 100_000);
+
+        assertThat(result.pagesRead()).isEqualTo(2);
+        assertThat(result.text()).contains("page 1 ", "page 2 ");
+        assertThat(scratchFiles()).isZero();
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.backend.service;
+
+import com.example.backend.model.CardReview;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ReviewServiceTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+
+    private static CardReview fresh() {
+        return new CardReview(1L, 2L, 3L, NOW);
+    }
+
+    @Test
+    void firstTwoPassesUseFixedIntervals() {
+        CardReview r = fresh();
+
+        ReviewService.schedule(r, 5, NOW);
+        assertThat(r.getRepetitions()).isEqualTo(1);
+        assertThat(r.getIntervalDays()).isEqualTo(1);
+        assertThat(r.getEase()).isCloseTo(2.6, within(1e-9));
+        assertThat(r.getDue()).isEqualTo(NOW.plus(Duration.ofDays(1)));
+
+        ReviewService.schedule(r, 5, NOW);
+        assertThat(r.getRepetitions()).isEqualTo(2);
+        assertThat(r.getIntervalDays()).isEqualTo(6);
+        assertThat(r.getEase()).isCloseTo(2.7, within(1e-9));
+    }
+
+    @Test
+    void laterPassesMultiplyByEase() {
+        CardReview r = fresh();
+        ReviewService.schedule(r, 5, NOW);
+        ReviewService.schedule(r, 5, NOW);
+
+        // Grade 4 leaves the ease unchanged
+        ReviewService.schedule(r, 4, NOW);
+        assertThat(r.getIntervalDays()).isEqualTo(16);
+        assertThat(r.getEase()).isCloseTo(2.7, within(1e-9));
+        assertThat(r.getLastReviewedAt()).isEqualTo(NOW);
+        assertThat(r.getDue()).isEqualTo(NOW.plus(Duration.ofDays(16)));
+    }
+
+    @Test
+    void failingGradeRestartsTheCardAndCountsALapse() {
+        CardReview r = fresh();
+        ReviewService.schedule(r, 5, NOW);
+        ReviewService.schedule(r, 5, NOW);
+
+        ReviewService.schedule(r, 2, NOW);
+        assertThat(r.getRepetitions()).isZero();
+        assertThat(r.getIntervalDays()).isEqualTo(1);
+        assertThat(r.getLapses()).isEqualTo(1);
+        assertThat(r.getEase()).isCloseTo(2.38, within(1e-9));
+    }
+
+    @Test
+    void easeNeverDropsBelowFloor() {
+        CardReview r = fresh();
+        for (int i = 0; i < 10; i++) {
+            ReviewService.schedule(r, 0, NOW);
+        }
+        assertThat(r.getEase()).isCloseTo(1.3, within(1e-9));
+        assertThat(r.getLapses()).isEqualTo(10);
+    }
+}
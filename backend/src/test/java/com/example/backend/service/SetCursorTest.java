@@ -0,0 +1,45 @@
+package com.example.backend.service;
+
+import com.example.backend.model.FlashcardSet;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SetCursorTest {
+
+    private static FlashcardSet set(long id, Instant createdAt) {
+        FlashcardSet set = new FlashcardSet();
+        set.setId(id);
+        set.setCreatedAt(createdAt);
+        return set;
+    }
+
+    @Test
+    void roundTripsCreatedAtWithMicrosecondPrecision() {
+        Instant createdAt = Instant.parse("2024-05-01T10:15:30.123456Z");
+        SetCursor cursor = SetCursor.decode(SetCursor.after(set(42, createdAt), "createdAt").encode());
+
+        assertThat(cursor.getSortBy()).isEqualTo("createdAt");
+        assertThat(cursor.keyAsInstant()).isEqualTo(createdAt);
+        assertThat(cursor.getId()).isEqualTo(42);
+    }
+
+    @Test
+    void keepsRequestedSortWhenCreatedAtIsMissing() {
+        SetCursor cursor = SetCursor.decode(SetCursor.after(set(7, null), "createdAt").encode());
+
+        assertThat(cursor.getSortBy()).isEqualTo("createdAt");
+        assertThat(cursor.getId()).isEqualTo(7);
+        assertThat(cursor.keyAsInstant()).isBefore(Instant.parse("1970-01-01T00:00:00Z"));
+    }
+
+    @Test
+    void idSortUsesIdAsKey() {
+        SetCursor cursor = SetCursor.after(set(9, Instant.now()), "id");
+
+        assertThat(cursor.getSortBy()).isEqualTo("id");
+        assertThat(cursor.getKey()).isEqualTo(9);
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.SetSummaryDto;
+import com.example.backend.model.Flashcard;
+import com.example.backend.model.FlashcardSet;
+import com.example.backend.model.Folder;
+import com.example.backend.model.User;
+import com.example.backend.model.UserProfile;
+import com.example.backend.repository.FlashcardSetRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Query-count regression test for set listings: building DTOs for a page of
+ * sets must cost the same number of statements whatever the page size.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("jpatest")
+@Import(SetDtoAssembler.class)
+class SetDtoAssemblerTest {
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private FlashcardSetRepository setRepository;
+
+    @Autowired
+    private SetDtoAssembler assembler;
+
+    private Statistics stats;
+
+    @BeforeEach
+    void setUp() {
+        stats = emf.unwrap(SessionFactory.class).getStatistics();
+        for (int u = 0; u < 3; u++) {
+            User user = new User();
+            user.setUsername("owner" + u);
+            user.setEmail("owner" + u + "@example.com");
+            user.setPassword("x");
+            em.persist(user);
+
+            UserProfile profile = new UserProfile();
+            profile.setUser(user);
+            profile.setDisplayName("Owner " + u);
+            em.persist(profile);
+
+            Folder folder = new Folder();
+            folder.setName("folder" + u);
+            folder.setUser(user);
+            em.persist(folder);
+
+            for (int s = 0; s < 4; s++) {
+                FlashcardSet set = new FlashcardSet();
+                set.setTitle("set" + u + "-" + s);
+                set.setAccess("public");
+                set.setFolder(folder);
+                em.persist(set);
+                for (int c = 0; c <= s; c++) {
+                    Flashcard card = new Flashcard();
+                    card.setWord("word" + c);
+                    card.setSet(set);
+                    em.persist(card);
+                }
+            }
+        }
+        em.flush();
+        em.clear();
+    }
+
+    private long statementsForPage(int size) {
+        em.clear();
+        stats.clear();
+        List<FlashcardSet> sets = setRepository.findFirstByAccess("public",
+                PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "id")));
+        List<SetSummaryDto> dtos = assembler.toSummaries(sets);
+        assertThat(dtos).hasSize(size);
+        // Touch everything the controller serializes
+        dtos.forEach(d -> assertThat(d.getOwnerUsername()).isNotNull());
+        return stats.getPrepareStatementCount();
+    }
+
+    @Test
+    void pageOfSetsCostsThreeStatements() {
+        // sets (with folder + owner), owner profiles, card counts
+        assertThat(statementsForPage(12)).isEqualTo(3);
+    }
+
+    @Test
+    void statementCountDoesNotGrowWithPageSize() {
+        assertThat(statementsForPage(2)).isEqualTo(statementsForPage(12));
+    }
+
+    @Test
+    void summariesCarryOwnerProfileAndCardCount() {
+        List<FlashcardSet> sets = setRepository.findFirstByAccess("public",
+                PageRequest.of(0, 12, Sort.by(Sort.Direction.ASC, "id")));
+        List<SetSummaryDto> dtos = assembler.toSummaries(sets);
+
+        assertThat(dtos.get(0).getOwnerDisplayName()).isEqualTo("Owner 0");
+        assertThat(dtos).extracting(SetSummaryDto::getCardCount).containsExactly(1, 2, 3, 4, 1, 2, 3, 4, 1, 2, 3, 4);
+    }
+}
@@ -0,0 +1,74 @@
+-- Benchmark for the per-user set listing (GET /api/sets without folderId).
+-- Seeds 1,000 users x 10 folders x 10 sets = 100k sets into a scratch schema,
+-- then times the owner query used by FlashcardSetRepository.findByFolderUserId.
+-- Run: mysql -u root -p < db/bench_owner_listing.sql
+-- Latency should stay flat (sub-millisecond) for any user as the set count grows,
+-- and EXPLAIN should show `ref` on idx_folders_user_id_id and idx_sets_folder_id_id.
+
+CREATE DATABASE IF NOT EXISTS pbl6_bench;
+USE pbl6_bench;
+
+DROP TABLE IF EXISTS flashcard_sets;
+DROP TABLE IF EXISTS folders;
+DROP TABLE IF EXISTS users;
+
+CREATE TABLE users (
+  id bigint NOT NULL AUTO_INCREMENT,
+  username varchar(255) NOT NULL,
+  PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE folders (
+  id bigint NOT NULL AUTO_INCREMENT,
+  user_id bigint NOT NULL,
+  name varchar(255) NOT NULL,
+  PRIMARY KEY (id),
+  KEY idx_folders_user_id_id (user_id, id)
+) ENGINE=InnoDB;
+
+CREATE TABLE flashcard_sets (
+  id bigint NOT NULL AUTO_INCREMENT,
+  title varchar(255) NOT NULL,
+  access varchar(20) NOT NULL DEFAULT 'public',
+  folder_id bigint DEFAULT NULL,
+  PRIMARY KEY (id),
+  KEY idx_sets_folder_id_id (folder_id, id)
+) ENGINE=InnoDB;
+
+SET SESSION cte_max_recursion_depth = 200000;
+
+INSERT INTO users (id, username)
+WITH RECURSIVE seq(n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 1000)
+SELECT n, CONCAT('user', n) FROM seq;
+
+INSERT INTO folders (id, user_id, name)
+WITH RECURSIVE seq(n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 10000)
+SELECT n, ((n - 1) DIV 10) + 1, CONCAT('folder', n) FROM seq;
+
+INSERT INTO flashcard_sets (id, title, folder_id)
+WITH RECURSIVE seq(n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 100000)
+SELECT n, CONCAT('set', n), ((n - 1) DIV 10) + 1 FROM seq;
+
+ANALYZE TABLE users, folders, flashcard_sets;
+
+-- Owner listing for a user at the start, middle and end of the id range
+EXPLAIN ANALYZE
+SELECT s.*, f.*, u.* FROM flashcard_sets s
+  JOIN folders f ON f.id = s.folder_id
+  JOIN users u ON u.id = f.user_id
+WHERE f.user_id = 1;
+
+EXPLAIN ANALYZE
+SELECT s.*, f.*, u.* FROM flashcard_sets s
+  JOIN folders f ON f.id = s.folder_id
+  JOIN users u ON u.id = f.user_id
+WHERE f.user_id = 500;
+
+EXPLAIN ANALYZE
+SELECT s.*, f.*, u.* FROM flashcard_sets s
+  JOIN folders f ON f.id = s.folder_id
+  JOIN users u ON u.id = f.user_id
+WHERE f.user_id = 1000;
+
+-- For comparison: the old path loaded every set and filtered in Java
+EXPLAIN ANALYZE SELECT * FROM flashcard_sets;
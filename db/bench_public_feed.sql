@@ -0,0 +1,37 @@
+-- Benchmark for GET /api/sets/public: OFFSET pagination vs keyset (cursor) pagination.
+-- Seeds 1,000,000 public sets into a scratch schema and compares a deep OFFSET page
+-- (plus the COUNT(*) Spring Data issues for totalElements) against the seek query
+-- used by FlashcardSetRepository.findByAccessBeforeId.
+-- Run: mysql -u root -p < db/bench_public_feed.sql
+-- Expected: OFFSET time grows with the page number, keyset stays flat.
+
+CREATE DATABASE IF NOT EXISTS pbl6_bench;
+USE pbl6_bench;
+
+DROP TABLE IF EXISTS feed_sets;
+
+CREATE TABLE feed_sets (
+  id bigint NOT NULL AUTO_INCREMENT,
+  title varchar(255) NOT NULL,
+  access varchar(20) NOT NULL DEFAULT 'public',
+  folder_id bigint DEFAULT NULL,
+  PRIMARY KEY (id),
+  KEY idx_sets_access_id (access, id)
+) ENGINE=InnoDB;
+
+SET SESSION cte_max_recursion_depth = 2000000;
+
+INSERT INTO feed_sets (id, title, access, folder_id)
+WITH RECURSIVE seq(n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 1000000)
+SELECT n, CONCAT('set', n), IF(n % 20 = 0, 'private', 'public'), (n DIV 10) + 1 FROM seq;
+
+ANALYZE TABLE feed_sets;
+
+-- Offset mode, first page and a deep page (page 50,000 of size 9)
+EXPLAIN ANALYZE SELECT * FROM feed_sets WHERE access = 'public' ORDER BY id DESC LIMIT 9 OFFSET 0;
+EXPLAIN ANALYZE SELECT * FROM feed_sets WHERE access = 'public' ORDER BY id DESC LIMIT 9 OFFSET 450000;
+EXPLAIN ANALYZE SELECT COUNT(*) FROM feed_sets WHERE access = 'public';
+
+-- Keyset mode, same positions: seek past the last id of the previous page
+EXPLAIN ANALYZE SELECT * FROM feed_sets WHERE access = 'public' AND id < 9223372036854775807 ORDER BY id DESC LIMIT 10;
+EXPLAIN ANALYZE SELECT * FROM feed_sets WHERE access = 'public' AND id < 526316 ORDER BY id DESC LIMIT 10;
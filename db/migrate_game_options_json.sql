@@ -0,0 +1,20 @@
+-- Converts flashcards.mcq_options / sentence_options from the old TEXT/varchar
+-- encoding to json columns. Safe to re-run.
+-- Run: mysql -u root -p pbl6 < db/migrate_game_options_json.sql
+--
+-- Values that are not a valid JSON array (hand-built arrays with raw newlines,
+-- newline-separated text) are cleared; the backend regenerates them on demand.
+-- Without this script the backend still reads those legacy values (see
+-- OptionListConverter), but long sentence lists may not fit a varchar(255).
+
+UPDATE flashcards SET mcq_options = NULL
+ WHERE mcq_options IS NOT NULL
+   AND (NOT JSON_VALID(mcq_options) OR JSON_TYPE(mcq_options) <> 'ARRAY');
+
+UPDATE flashcards SET sentence_options = NULL
+ WHERE sentence_options IS NOT NULL
+   AND (NOT JSON_VALID(sentence_options) OR JSON_TYPE(sentence_options) <> 'ARRAY');
+
+ALTER TABLE flashcards
+  MODIFY mcq_options json NULL,
+  MODIFY sentence_options json NULL;
@@ -28,8 +28,12 @@ CREATE TABLE `flashcard_sets` (
   `title` varchar(255) NOT NULL,
   `access` varchar(20) NOT NULL DEFAULT 'public',
   `folder_id` bigint DEFAULT NULL,
+  `created_at` datetime(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+  `updated_at` datetime(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
   PRIMARY KEY (`id`),
-  KEY `FKc8s79d71mfyrnbmfm3yynk893` (`folder_id`),
+  KEY `idx_sets_folder_id_id` (`folder_id`, `id`),
+  KEY `idx_sets_access_id` (`access`, `id`),
+  KEY `idx_sets_access_created_at_id` (`access`, `created_at`, `id`),
   CONSTRAINT `FKc8s79d71mfyrnbmfm3yynk893` FOREIGN KEY (`folder_id`) REFERENCES `folders` (`id`)
 ) ENGINE=InnoDB AUTO_INCREMENT=16 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 /*!40101 SET character_set_client = @saved_cs_client */;
@@ -50,6 +54,8 @@ CREATE TABLE `flashcards` (
   `example` text,
   `type` varchar(50) DEFAULT NULL,
   `audio` varchar(500) DEFAULT NULL,
+  `mcq_options` json DEFAULT NULL,
+  `sentence_options` json DEFAULT NULL,
   `created_at` timestamp NULL DEFAULT CURRENT_TIMESTAMP,
   `updated_at` timestamp NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
   PRIMARY KEY (`id`),
@@ -57,6 +63,9 @@ CREATE TABLE `flashcards` (
   KEY `idx_word` (`word`),
   CONSTRAINT `flashcards_ibfk_2` FOREIGN KEY (`set_id`) REFERENCES `flashcard_sets` (`id`) ON DELETE CASCADE
 ) ENGINE=InnoDB AUTO_INCREMENT=7 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+-- Cached game options used to be TEXT/varchar holding hand-built JSON. Existing databases
+-- are converted by db/migrate_game_options_json.sql.
 /*!40101 SET character_set_client = @saved_cs_client */;
 
 --
@@ -71,9 +80,47 @@ CREATE TABLE `folders` (
   `user_id` bigint NOT NULL DEFAULT '1',
   `name` varchar(255) NOT NULL,
   PRIMARY KEY (`id`),
-  KEY `fk_folders_user` (`user_id`),
+  KEY `idx_folders_user_id_id` (`user_id`, `id`),
   CONSTRAINT `fk_folders_user` FOREIGN KEY (`user_id`) REFERENCES `users` (`id`) ON DELETE CASCADE
 ) ENGINE=InnoDB AUTO_INCREMENT=11 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+-- Per-user set listing joins folders.user_id -> flashcard_sets.folder_id; on existing databases add:
+-- ALTER TABLE folders ADD KEY idx_folders_user_id_id (user_id, id);
+-- ALTER TABLE flashcard_sets ADD KEY idx_sets_folder_id_id (folder_id, id);
+-- Keyset pagination of the public feed seeks on (access, id):
+-- ALTER TABLE flashcard_sets ADD KEY idx_sets_access_id (access, id);
+-- Audit timestamps; the default backfills existing rows. The default public sort
+-- (created_at DESC, id DESC) is served from idx_sets_access_created_at_id:
+-- ALTER TABLE flashcard_sets
+--   ADD COLUMN created_at datetime(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+--   ADD COLUMN updated_at datetime(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+--   ADD KEY idx_sets_access_created_at_id (access, created_at, id);
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Table structure for table `card_reviews`
+--
+
+DROP TABLE IF EXISTS `card_reviews`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `card_reviews` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `user_id` bigint NOT NULL,
+  `card_id` bigint NOT NULL,
+  `set_id` bigint NOT NULL,
+  `due` datetime(6) NOT NULL,
+  `interval_days` int NOT NULL,
+  `ease` double NOT NULL,
+  `repetitions` int NOT NULL,
+  `lapses` int NOT NULL,
+  `last_reviewed_at` datetime(6) DEFAULT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_reviews_user_card` (`user_id`, `card_id`),
+  KEY `idx_reviews_user_due` (`user_id`, `due`),
+  CONSTRAINT `fk_reviews_user` FOREIGN KEY (`user_id`) REFERENCES `users` (`id`) ON DELETE CASCADE,
+  CONSTRAINT `fk_reviews_card` FOREIGN KEY (`card_id`) REFERENCES `flashcards` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 /*!40101 SET character_set_client = @saved_cs_client */;
 
 --
@@ -107,13 +154,19 @@ CREATE TABLE `users` (
   `id` bigint NOT NULL AUTO_INCREMENT,
   `username` varchar(255) NOT NULL,
   `password` varchar(255) NOT NULL,
+  `email` varchar(255) NOT NULL,
+  `token_version` int NOT NULL DEFAULT '0',
   PRIMARY KEY (`id`),
-  UNIQUE KEY `username` (`username`),
-  `email` varchar(255) NOT NULL UNIQUE
+  UNIQUE KEY `uk_users_username` (`username`),
+  UNIQUE KEY `uk_users_email` (`email`)
 ) ENGINE=InnoDB AUTO_INCREMENT=3 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 
 -- If table already exists without email, add column (idempotent in MySQL using dynamic SQL is tricky; run manually if needed)
 -- ALTER TABLE users ADD COLUMN email VARCHAR(255) NOT NULL UNIQUE;
+-- Unique keys carry fixed names; registration maps duplicate-key errors by them:
+-- ALTER TABLE users RENAME INDEX username TO uk_users_username, RENAME INDEX email TO uk_users_email;
+-- Token revocation counter (bumped on password change / logout):
+-- ALTER TABLE users ADD COLUMN token_version INT NOT NULL DEFAULT 0;
 /*!40101 SET character_set_client = @saved_cs_client */;
 /*!40103 SET TIME_ZONE=@OLD_TIME_ZONE */;
 
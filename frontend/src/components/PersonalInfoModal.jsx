@@ -1,5 +1,5 @@
 import React, { useEffect, useState } from 'react';
-import { authFetch } from '../services/auth';
+import { authFetch, getCurrentUserId, saveToken } from '../services/auth';
 import InitialAvatar from './InitialAvatar';
 
 export default function PersonalInfoModal({ open, onClose }) {
@@ -92,6 +92,8 @@ export default function PersonalInfoModal({ open, onClose }) {
       }
       let data = null;
       try { data = await res.json(); } catch { /* ignore */ }
+      // Older tokens are revoked by the change; keep this session on the new pair
+      if (data && data.token) saveToken(data.token, getCurrentUserId(), data.refreshToken);
       const serverMsg = (data && (data.message || data.msg)) ? (data.message || data.msg) : 'Đã đổi mật khẩu thành công';
       setPwSuccess(serverMsg);
       setOldPassword('');
@@ -21,7 +21,7 @@ const Login = () => {
     try {
       const data = await apiLogin(username, password);
       // Save token keyed by the entered username for multi-account support
-      saveToken(data.token, username);
+      saveToken(data.token, username, data.refreshToken);
       navigate('/');
     } catch (error) {
       console.error(error);
@@ -1,5 +1,6 @@
 const API = import.meta.env.VITE_API_BASE || (import.meta.env.DEV ? '/api' : 'https://pbl6-k1wm.onrender.com');
 const AUTH_TOKENS_KEY = 'auth_tokens';
+const REFRESH_TOKENS_KEY = 'auth_refresh_tokens';
 // Store active account per tab using sessionStorage (Gmail-style)
 const CURRENT_USER_KEY = 'current_user_id';
 
@@ -55,23 +56,31 @@ export async function register(username, password, email, displayName) {
   }
 }
 
-function getAuthTokens() {
+function readMap(key) {
   try {
-    const raw = localStorage.getItem(AUTH_TOKENS_KEY);
+    const raw = localStorage.getItem(key);
     return raw ? JSON.parse(raw) : {};
   } catch {
     return {};
   }
 }
 
-function setAuthTokens(obj) {
+function writeMap(key, obj) {
   try {
-    localStorage.setItem(AUTH_TOKENS_KEY, JSON.stringify(obj || {}));
+    localStorage.setItem(key, JSON.stringify(obj || {}));
   } catch {
     // ignore
   }
 }
 
+function getAuthTokens() {
+  return readMap(AUTH_TOKENS_KEY);
+}
+
+function setAuthTokens(obj) {
+  writeMap(AUTH_TOKENS_KEY, obj);
+}
+
 export function setCurrentUser(userId) {
   const id = userId == null ? null : String(userId).trim();
   if (!id) {
@@ -98,13 +107,18 @@ export function listAccounts() {
   return Object.keys(tokens);
 }
 
-export function saveToken(token, userId) {
+export function saveToken(token, userId, refreshToken) {
   const t = token == null ? null : String(token).trim();
   const id = userId == null ? null : String(userId).trim();
   if (t && id) {
     const tokens = getAuthTokens();
     tokens[id] = t;
     setAuthTokens(tokens);
+    if (refreshToken) {
+      const refresh = readMap(REFRESH_TOKENS_KEY);
+      refresh[id] = refreshToken;
+      writeMap(REFRESH_TOKENS_KEY, refresh);
+    }
     setCurrentUser(id); 
     localStorage.removeItem('jwt');
   } else {
@@ -143,13 +157,40 @@ function parseJwt(token) {
   }
 }
 
-export function isTokenExpired() {
+export function isTokenExpired(skewSec = 0) {
   const token = getToken();
   if (!token) return true;
   const payload = parseJwt(token);
   if (!payload || typeof payload.exp !== 'number') return false;
   const nowSec = Math.floor(Date.now() / 1000);
-  return payload.exp <= nowSec;
+  return payload.exp <= nowSec + skewSec;
+}
+
+let refreshing = null;
+
+// Swaps the current account's refresh token for a new pair; resolves to false if it was rejected
+function refreshTokens() {
+  const id = getCurrentUserId();
+  const refreshToken = id ? readMap(REFRESH_TOKENS_KEY)[id] : null;
+  if (!refreshToken) return Promise.resolve(false);
+  if (!refreshing) {
+    refreshing = fetch(resolveUrl('/api/auth/refresh'), {
+      method: 'POST',
+      headers: { 'Content-Type': 'application/json' },
+      body: JSON.stringify({ refreshToken }),
+    })
+      .then(async (res) => {
+        if (!res.ok) return false;
+        const data = await res.json();
+        saveToken(data.token, id, data.refreshToken);
+        return true;
+      })
+      .catch(() => false)
+      .finally(() => {
+        refreshing = null;
+      });
+  }
+  return refreshing;
 }
 
 export function logout() {
@@ -160,6 +201,11 @@ export function logout() {
       delete tokens[current];
       setAuthTokens(tokens);
     }
+    const refresh = readMap(REFRESH_TOKENS_KEY);
+    if (refresh[current]) {
+      delete refresh[current];
+      writeMap(REFRESH_TOKENS_KEY, refresh);
+    }
     sessionStorage.removeItem(CURRENT_USER_KEY);
     if (!Object.keys(tokens).length) {
       localStorage.removeItem(CURRENT_USER_KEY);
@@ -173,29 +219,35 @@ export function logout() {
   }
 }
 
-export function authFetch(url, opts = {}) {
-  if (isTokenExpired()) {
+function resolveUrl(url) {
+  if (url.startsWith('http')) return url;
+  if (API === '/api') return url.startsWith('/api') ? url : `/api${url.startsWith('/') ? '' : '/'}${url}`;
+  return `${API}${url.startsWith('/') ? '' : '/'}${url}`;
+}
+
+export async function authFetch(url, opts = {}) {
+  // Access tokens are short-lived: renew shortly before expiry instead of signing out
+  if (getToken() && isTokenExpired(30) && !(await refreshTokens()) && isTokenExpired()) {
     logout();
   }
-  const token = getToken();
-  const headers = opts.headers || {};
-  if (token) headers['Authorization'] = `Bearer ${token}`;
-
-  let fullUrl;
-  if (url.startsWith('http')) {
-    fullUrl = url;
-  } else if (API === '/api') {
-    fullUrl = url.startsWith('/api') ? url : `/api${url.startsWith('/') ? '' : '/'}${url}`;
-  } else {
-    fullUrl = `${API}${url.startsWith('/') ? '' : '/'}${url}`;
-  }
+  const send = () => {
+    const token = getToken();
+    const headers = { ...(opts.headers || {}) };
+    if (token) headers['Authorization'] = `Bearer ${token}`;
+    return fetch(resolveUrl(url), { ...opts, headers });
+  };
 
-  return fetch(fullUrl, { ...opts, headers }).then(async (res) => {
+  let res = await send();
+  if (res.status === 401 || res.status === 403) {
+    // Token may have been revoked or rotated elsewhere; try once more with a fresh pair
+    if (getToken() && (await refreshTokens())) {
+      res = await send();
+    }
     if (res.status === 401 || res.status === 403) {
       logout();
     }
-    return res;
-  });
+  }
+  return res;
 }
 
 export default { login, register, saveToken, getToken, authFetch, isTokenExpired, logout };